@@ -0,0 +1,101 @@
+package com.example.dartcounterapp.benchmarks;
+
+import com.example.dartcounterapp.BoardHost;
+import com.example.dartcounterapp.ThrowResult;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Load test for {@link BoardHost}: one client per board, each sending throws back to back
+ * over its own connection and timing every round trip. A board whose match is won is sent
+ * {@code NEW}, untimed, before its next throw. Prints throws per second and latency percentiles.
+ * Arguments: [boards] [throws per board]
+ */
+public final class BoardHostLoadTest {
+
+    private static final String[] THROWS = {"T20", "T20", "S20", "T19", "S5", "S1", "D16", "T20", "S20", "0"};
+
+    private BoardHostLoadTest() { }
+
+    public static void main(String[] args) throws Exception {
+        int boardCount = args.length > 0 ? Integer.parseInt(args[0]) : 500;
+        int throwsPerBoard = args.length > 1 ? Integer.parseInt(args[1]) : 2_000;
+
+        try (BoardHost host = new BoardHost(boardCount, 0, 501, 3, 3);
+             ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+
+            Future<?>[] results = new Future<?>[boardCount];
+            long[][] latencies = new long[boardCount][];
+            long start = System.nanoTime();
+
+            for (int b = 0; b < boardCount; b++) {
+                int board = b;
+                results[b] = clients.submit(() -> {
+                    latencies[board] = drive(host.getPort(), board, throwsPerBoard);
+                    return null;
+                });
+            }
+            for (Future<?> result : results) result.get();
+            long elapsed = System.nanoTime() - start;
+
+            long[] all = Arrays.stream(latencies).flatMapToLong(Arrays::stream).sorted().toArray();
+            System.out.printf("%d boards, %d throws in %.2fs: %.0f throws/s%n",
+                    boardCount, all.length, elapsed / 1e9, all.length * 1e9 / elapsed);
+            System.out.printf("latency p50 %.1fus, p99 %.1fus, p99.9 %.1fus, max %.1fus%n",
+                    percentile(all, 0.50) / 1e3, percentile(all, 0.99) / 1e3,
+                    percentile(all, 0.999) / 1e3, all[all.length - 1] / 1e3);
+        }
+    }
+
+    private static long[] drive(int port, int board, int count) {
+        long[] latencies = new long[count];
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port);
+             BufferedReader in = new BufferedReader(
+                     new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+             PrintWriter out = new PrintWriter(
+                     new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.US_ASCII), false)) {
+            socket.setTcpNoDelay(true);
+            String prefix = board + " DART ";
+            for (int i = 0; i < count; i++) {
+                long sent = System.nanoTime();
+                out.print(prefix);
+                out.print(THROWS[(i + board) % THROWS.length]);
+                out.print('\n');
+                out.flush();
+                String reply = in.readLine();
+                latencies[i] = System.nanoTime() - sent;
+                check(board, reply);
+                if (reply.endsWith(ThrowResult.MATCH.getMessage())) {
+                    out.print(board + " NEW\n");
+                    out.flush();
+                    check(board, in.readLine());
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return latencies;
+    }
+
+    private static void check(int board, String reply) {
+        if (reply == null || !reply.startsWith("OK")) {
+            throw new IllegalStateException("Board " + board + " replied: " + reply);
+        }
+    }
+
+    private static long percentile(long[] sorted, double p) {
+        return sorted[Math.min(sorted.length - 1, (int) Math.ceil(p * sorted.length) - 1)];
+    }
+}
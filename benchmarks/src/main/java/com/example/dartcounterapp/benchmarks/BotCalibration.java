@@ -0,0 +1,103 @@
+package com.example.dartcounterapp.benchmarks;
+
+import com.example.dartcounterapp.Bot;
+import com.example.dartcounterapp.Game;
+import com.example.dartcounterapp.LatencyHistogram;
+import com.example.dartcounterapp.Player;
+import com.example.dartcounterapp.Rules;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Checks headlessly that a {@link Bot} plays to the strength it was built for. For each level
+ * it builds {@link Bot#forAverage}, plays thousands of legs of 501 through {@link Game} with the
+ * bot throwing every dart, and compares the player's three-dart average with the target. Then
+ * it times a million decisions on their own, where nothing else allocates and so no GC can
+ * interrupt them, and checks that the p99.99 kept to the bot's budget and none allocated.
+ * A handful of slower decisions is expected: over a million wall-clock timings the OS and
+ * safepoints will stall a few, which says nothing about the bot. Nothing here touches JavaFX.
+ *
+ * <p>The process exits with status 1 if any level misses its average by more than the
+ * tolerance, the p99.99 decision time is over budget, or the decisions allocated.</p>
+ *
+ * <p>Arguments: [legs per level] [tolerance in points] [levels, e.g. 40,60,80,100]</p>
+ */
+public final class BotCalibration {
+
+    private static final int WARM_UP_DARTS = 200_000;
+    private static final int TIMED_DARTS = 1_000_000;
+    private static final double GATED_PERCENTILE = 99.99;
+
+    private BotCalibration() { }
+
+    public static void main(String[] args) {
+        int legs = args.length > 0 ? Integer.parseInt(args[0]) : 5_000;
+        double tolerance = args.length > 1 ? Double.parseDouble(args[1]) : 1.5;
+        String[] levels = (args.length > 2 ? args[2] : "40,50,60,70,80,90").split(",");
+
+        boolean passed = true;
+        for (String level : levels) {
+            double target = Double.parseDouble(level.trim());
+            passed &= check(target, legs, tolerance);
+        }
+        passed &= checkDecisions();
+        System.out.println(passed ? "Calibration OK" : "Calibration FAILED");
+        if (!passed) System.exit(1);
+    }
+
+    /** Plays the legs for one level and reports its average. */
+    private static boolean check(double target, int legs, double tolerance) {
+        Bot bot = Bot.forAverage(target, Double.doubleToLongBits(target));
+        Player player = new Player("Bot", 501);
+        // One set of one leg per leg played, so the match ends after exactly that many legs.
+        Game game = new Game(new Player[] {player}, 501, 1, legs);
+        while (game.getMatchWinner() == null) {
+            game.throwDart(bot.nextDart(game.getRules(), player.getCurrentScore(), game.getDartsLeft(player)));
+        }
+
+        double average = player.getThreeDartAverage();
+        boolean ok = Math.abs(average - target) <= tolerance;
+        System.out.printf("target %5.1f  average %6.2f over %d legs  (skill %.3f)  %s%n",
+                target, average, legs, skillOf(bot), ok ? "OK" : "FAILED");
+        return ok;
+    }
+
+    private static double skillOf(Bot bot) {
+        return (bot.getModel().getTrebleHit() - 0.05) / 0.40;
+    }
+
+    /** Runs the decision path until it is compiled, so its times and allocation are representative. */
+    private static void warmUp(Bot bot) {
+        int score = 501;
+        for (int i = 0; i < WARM_UP_DARTS; i++) {
+            bot.nextDart(Rules.STANDARD, score, 3 - i % 3);
+            score = score <= 2 ? 501 : score - 1;
+        }
+    }
+
+    /** @return true if a million decisions kept to the budget at the gated percentile and allocated nothing */
+    private static boolean checkDecisions() {
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        Bot bot = Bot.forAverage(60, 1);
+        warmUp(bot);
+        bot.getDecisionTimes().reset();
+        long overBudgetBefore = bot.getOverBudget();
+        long thread = Thread.currentThread().threadId();
+        int score = 501;
+        long before = threads.getThreadAllocatedBytes(thread);
+        for (int i = 0; i < TIMED_DARTS; i++) {
+            bot.nextDart(Rules.STANDARD, score, 3 - i % 3);
+            score = score <= 2 ? 501 : score - 1;
+        }
+        long allocated = threads.getThreadAllocatedBytes(thread) - before;
+        long overBudget = bot.getOverBudget() - overBudgetBefore;
+        LatencyHistogram times = bot.getDecisionTimes();
+        long gated = times.getValueAtPercentile(GATED_PERCENTILE);
+        boolean ok = allocated == 0 && gated <= bot.getBudgetNanos();
+        System.out.printf("%d decisions: p50 %d ns  p99 %d ns  p99.99 %d ns  max %d ns  over %d ns budget %d  allocated %d bytes  %s%n",
+                TIMED_DARTS, times.getValueAtPercentile(50), times.getValueAtPercentile(99), gated, times.getMax(),
+                bot.getBudgetNanos(), overBudget, allocated, ok ? "OK" : "FAILED");
+        return ok;
+    }
+}
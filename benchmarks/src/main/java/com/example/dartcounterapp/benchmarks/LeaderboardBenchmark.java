@@ -0,0 +1,84 @@
+package com.example.dartcounterapp.benchmarks;
+
+import com.example.dartcounterapp.Leaderboard;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link Leaderboard} over a league of 4,000 players: a season of 40,000 best-of-five
+ * matches recorded from scratch, and rank and top-10 queries on the finished standings.
+ */
+@State(Scope.Thread)
+@Fork(1)
+public class LeaderboardBenchmark {
+
+    private static final int PLAYERS = 4000;
+    private static final int MATCHES = 40_000;
+
+    private String[] names;
+    private String[][][] sides;
+    private int[][] legs;
+    private Leaderboard season;
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void drawSeason() {
+        SplittableRandom random = new SplittableRandom(42);
+        names = new String[PLAYERS];
+        for (int i = 0; i < PLAYERS; i++) names[i] = "Player " + i;
+        sides = new String[MATCHES][][];
+        legs = new int[MATCHES][];
+        for (int i = 0; i < MATCHES; i++) {
+            int a = random.nextInt(PLAYERS);
+            int b = random.nextInt(PLAYERS - 1);
+            if (b >= a) b++;
+            sides[i] = new String[][] {{names[a]}, {names[b]}};
+            int loserLegs = random.nextInt(3);
+            legs[i] = random.nextBoolean() ? new int[] {3, loserLegs} : new int[] {loserLegs, 3};
+        }
+        season = recordSeason();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 3)
+    @Measurement(iterations = 10)
+    public Leaderboard recordSeason() {
+        Leaderboard board = new Leaderboard();
+        for (int i = 0; i < MATCHES; i++) board.recordMatch(sides[i], legs[i]);
+        return board;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    @Warmup(iterations = 3, time = 2)
+    @Measurement(iterations = 5, time = 2)
+    public int rankOf() {
+        cursor = (cursor + 1) % PLAYERS;
+        return season.rankOf(names[cursor]);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    @Warmup(iterations = 3, time = 2)
+    @Measurement(iterations = 5, time = 2)
+    public List<Leaderboard.Standing> top10() {
+        return season.top(10);
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.dartcounterapp.benchmarks;
+
+import com.example.dartcounterapp.Game;
+import com.example.dartcounterapp.MatchCodec;
+import com.example.dartcounterapp.Player;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of {@link MatchCodec}: a two-player match seven legs in, with full statistics,
+ * encoded to and decoded from a reused buffer, and single throw events.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MatchCodecBenchmark {
+
+    /** Legs played before the match is encoded; the first to three sets of three legs needs nine. */
+    private static final int MATCH_LEGS = 7;
+
+    private Game game;
+    private Game target;
+    private ByteBuffer buffer;
+    private ByteBuffer encoded;
+    private ByteBuffer events;
+    private int[] darts;
+    private int cursor;
+
+    @Setup
+    public void playMatch() {
+        darts = ThrowStreams.realistic(0.5, 1 << 12, 42).darts;
+        game = new Game(new Player("A", 501), new Player("B", 501), 501, 3, 3);
+        for (int i = 0; game.getLegsPlayed() < MATCH_LEGS; i++) game.throwDart(darts[i]);
+        target = new Game(new Player("A", 501), new Player("B", 501), 501, 3, 3);
+
+        buffer = ByteBuffer.allocate(MatchCodec.maxSize(game));
+        MatchCodec.encode(game, buffer);
+        encoded = ByteBuffer.wrap(Arrays.copyOf(buffer.array(), buffer.position()));
+        events = ByteBuffer.allocate(16);
+    }
+
+    @Benchmark
+    public int encodeMatch() {
+        buffer.clear();
+        MatchCodec.encode(game, buffer);
+        return buffer.position();
+    }
+
+    @Benchmark
+    public boolean decodeMatchInto() {
+        encoded.rewind();
+        return MatchCodec.decodeInto(encoded, target);
+    }
+
+    @Benchmark
+    public Game decodeMatch() {
+        encoded.rewind();
+        return MatchCodec.decode(encoded);
+    }
+
+    @Benchmark
+    public int encodeDecodeEvent() {
+        int i = cursor++;
+        events.clear();
+        MatchCodec.writeEvent(events, MatchCodec.dartEvent(i & 1, darts[i & (darts.length - 1)]));
+        events.flip();
+        return MatchCodec.readEvent(events);
+    }
+}
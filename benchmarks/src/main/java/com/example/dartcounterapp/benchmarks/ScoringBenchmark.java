@@ -0,0 +1,130 @@
+package com.example.dartcounterapp.benchmarks;
+
+import com.example.dartcounterapp.Game;
+import com.example.dartcounterapp.MatchCodec;
+import com.example.dartcounterapp.Player;
+import com.example.dartcounterapp.ThrowResult;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of the scoring hot paths in {@link Game} and {@link Player}, driven by throw
+ * streams taken from simulated 501 legs. Run with the GC profiler (see {@link BenchmarkRunner})
+ * to get allocation rates alongside throughput.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ScoringBenchmark {
+
+    private static final int STREAM_DARTS = 1 << 16;
+
+    /** "realistic" plays ordinary legs; "bustHeavy" makes most finishing turns bust. */
+    @Param({"realistic", "bustHeavy"})
+    public String stream;
+
+    private ThrowStreams throwStreams;
+    private int[] darts;
+    private String[] tokens;
+    private int[] totals;
+
+    private Game game;
+    /** The game before its first throw, encoded so that it can be restored in place. */
+    private ByteBuffer newMatch;
+    private Player player;
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void buildStreams() {
+        throwStreams = stream.equals("bustHeavy")
+                ? ThrowStreams.bustHeavy(0.5, STREAM_DARTS, 42)
+                : ThrowStreams.realistic(0.5, STREAM_DARTS, 42);
+        darts = throwStreams.darts;
+        tokens = throwStreams.tokens;
+        totals = throwStreams.totals;
+    }
+
+    /** Starts a match to three sets of three legs, as the app plays. */
+    @Setup(Level.Iteration)
+    public void newGame() {
+        game = new Game(new Player("A", 501), new Player("B", 501), 501, 3, 3);
+        newMatch = ByteBuffer.allocate(MatchCodec.maxSize(game));
+        MatchCodec.encode(game, newMatch);
+        newMatch.flip();
+        player = new Player("A", 501);
+        cursor = 0;
+    }
+
+    /**
+     * Once a match is won, decodes the new match back into the same game, which allocates
+     * nothing, so the throw benchmarks measure scoring alone however many matches they play.
+     */
+    private ThrowResult rollOver(ThrowResult result) {
+        if (result == ThrowResult.MATCH) {
+            newMatch.rewind();
+            MatchCodec.decodeInto(newMatch, game);
+        }
+        return result;
+    }
+
+    @Benchmark
+    public int parseDart() {
+        return game.parseDart(tokens[cursor++ & (tokens.length - 1)]);
+    }
+
+    @Benchmark
+    public ThrowResult throwDart() {
+        return rollOver(game.throwDart(darts[cursor++ & (darts.length - 1)]));
+    }
+
+    @Benchmark
+    public ThrowResult throwDartFromText() {
+        return rollOver(game.throwDart(tokens[cursor++ & (tokens.length - 1)]));
+    }
+
+    @Benchmark
+    public ThrowResult throwTotal() {
+        return rollOver(game.throwTotal(totals[cursor++ & (totals.length - 1)]));
+    }
+
+    @Benchmark
+    public String getCheckoutSuggestion() {
+        int i = cursor++;
+        int score = 2 + (i % 169);
+        int dartsLeft = 1 + (i % 3);
+        return game.getCheckoutSuggestion(score, dartsLeft);
+    }
+
+    @Benchmark
+    public int playerEndTurn() {
+        int total = totals[cursor++ & (totals.length - 1)];
+        player.startTurn();
+        int remaining = player.getCurrentScore() - total;
+        boolean bust = remaining < 2 && remaining != 0;
+        if (!bust) player.setCurrentScore(remaining);
+        player.endTurn(3, bust);
+        if (remaining == 0) player.resetForNewLeg(501);
+        return player.getLastTurnScored();
+    }
+
+    @Benchmark
+    public double getThreeDartAverage() {
+        return game.getPlayer1().getThreeDartAverage();
+    }
+}
@@ -0,0 +1,323 @@
+package com.example.dartcounterapp.benchmarks;
+
+import com.example.dartcounterapp.AccuracyModel;
+import com.example.dartcounterapp.CheckoutAdvisor;
+import com.example.dartcounterapp.CheckoutTable;
+import com.example.dartcounterapp.Dart;
+import com.example.dartcounterapp.DartCounterApp;
+import com.example.dartcounterapp.Game;
+import com.example.dartcounterapp.LatencyHistogram;
+import com.example.dartcounterapp.MatchSnapshots;
+import com.example.dartcounterapp.Player;
+import com.example.dartcounterapp.ScoreboardController;
+import com.example.dartcounterapp.ScoreboardScene;
+import com.example.dartcounterapp.SpectatorFeed;
+import com.example.dartcounterapp.ThrowJournal;
+import javafx.application.Platform;
+import javafx.event.ActionEvent;
+import javafx.fxml.FXMLLoader;
+import javafx.scene.Parent;
+import javafx.scene.Scene;
+import javafx.scene.control.TextField;
+import javafx.scene.control.ToggleButton;
+import javafx.stage.Stage;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Soak test for the scoreboard: builds it the way {@link DartCounterApp} does, then types
+ * synthetic throws into it at a steady rate for as long as asked, switching between per-dart
+ * and total mode every few legs, and watches for the slow leaks and slowdowns a long session
+ * would show.
+ *
+ * <p>As in the app, the scene is built in code by {@link ScoreboardScene} unless
+ * {@code -Ddartcounter.fxml=true} loads {@code scoreboard-view.fxml}, and the game has the
+ * app's listeners attached: a {@link ThrowJournal} and {@link MatchSnapshots} in a temporary
+ * directory, a {@link CheckoutAdvisor} and a {@link SpectatorFeed} on a free port.</p>
+ *
+ * <p>Throws come from an {@link AccuracyModel} aiming the way {@link CheckoutTable} suggests and
+ * go through the input field and its action, exactly as a typed entry would. Every sample
+ * period it prints the live heap after a full GC, the bytes the FX thread allocated per
+ * entry, and the p50/p99 of the FX pulse layout pass. The first period is warm-up. The
+ * process exits with status 1 if, after warm-up, the heap grew by more than its budget, any
+ * period allocated more per entry than its budget, or any period's pulse p99 was over budget.</p>
+ *
+ * <p>Matches are played to three sets of three legs, as in the app, and a new one starts on
+ * the same scoreboard whenever one is won, so the session never ends while the game's undo
+ * history stays within one match. Each new match is set up as the app sets up the next
+ * match once one is won: the journal is restarted, and the advisor and feed are created
+ * afresh for the new game. The scene is rendered with
+ * the software pipeline unless {@code prism.order} is set; without a display, run it under
+ * Monocle's headless platform
+ * ({@code -Dglass.platform=Monocle -Dmonocle.platform=Headless} with Monocle on the module path)
+ * or a virtual X server.</p>
+ *
+ * <p>Arguments: [minutes] [throws per minute] [sample seconds]. Budgets are the system
+ * properties {@code dartcounter.soak.heapGrowthMb}, {@code dartcounter.soak.allocKbPerThrow}
+ * and {@code dartcounter.soak.pulseP99Ms}.</p>
+ */
+public final class SoakTest {
+
+    private static final int MODE_SWITCH_LEGS = 3;
+    private static final int MAX_BACKLOG = 64;
+
+    private final long heapBudget = Long.getLong("dartcounter.soak.heapGrowthMb", 32) << 20;
+    private final long allocBudget = Long.getLong("dartcounter.soak.allocKbPerThrow", 64) << 10;
+    private final long pulseBudget = Long.getLong("dartcounter.soak.pulseP99Ms", 16) * 1_000_000;
+
+    private final SplittableRandom random = new SplittableRandom(42);
+    private final AccuracyModel model = AccuracyModel.forSkill(0.6);
+    private final AtomicInteger backlog = new AtomicInteger();
+    private final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+    private final com.sun.management.ThreadMXBean threads =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    // FX thread only.
+    private Game game;
+    private Path dataDir;
+    private ThrowJournal journal;
+    private MatchSnapshots snapshots;
+    private CheckoutAdvisor checkoutAdvisor;
+    private SpectatorFeed spectatorFeed;
+    private ScoreboardController controller;
+    private TextField input;
+    private ToggleButton modeToggle;
+    private boolean perDartMode;
+    private int modeLegs;
+    private long fxThread;
+    private long entries;
+    private long dropped;
+    private long pulseStart;
+    private final LatencyHistogram pulse = new LatencyHistogram();
+
+    private SoakTest() { }
+
+    public static void main(String[] args) throws Exception {
+        long minutes = args.length > 0 ? Long.parseLong(args[0]) : 60;
+        int perMinute = args.length > 1 ? Integer.parseInt(args[1]) : 6_000;
+        int sampleSeconds = args.length > 2 ? Integer.parseInt(args[2]) : 60;
+        if (System.getProperty("prism.order") == null) System.setProperty("prism.order", "sw");
+
+        CountDownLatch started = new CountDownLatch(1);
+        Platform.startup(started::countDown);
+        started.await();
+
+        SoakTest test = new SoakTest();
+        boolean passed = test.run(minutes, perMinute, sampleSeconds);
+        Platform.exit();
+        System.exit(passed ? 0 : 1);
+    }
+
+    private boolean run(long minutes, int perMinute, int sampleSeconds) throws Exception {
+        onFx(this::show);
+        System.out.printf("Soak test: %d min at %d throws/min, sampled every %d s%n", minutes, perMinute, sampleSeconds);
+
+        ScheduledExecutorService pump = Executors.newSingleThreadScheduledExecutor();
+        pump.scheduleAtFixedRate(this::pumpOne, 0, 60_000_000_000L / perMinute, TimeUnit.NANOSECONDS);
+
+        boolean passed = true;
+        long baseHeap = -1;
+        long[] previous = onFx(this::counters);
+        long end = System.nanoTime() + TimeUnit.MINUTES.toNanos(minutes);
+        try {
+            for (int period = 0; System.nanoTime() < end; period++) {
+                Thread.sleep(TimeUnit.SECONDS.toMillis(sampleSeconds));
+                long[] now = onFx(this::counters);
+                long throwsDone = now[0] - previous[0];
+                long allocated = now[1] - previous[1];
+                long perThrow = throwsDone == 0 ? 0 : allocated / throwsDone;
+                long p50 = now[2];
+                long p99 = now[3];
+                previous = now;
+
+                System.gc();
+                long heap = memory.getHeapMemoryUsage().getUsed();
+                boolean warmUp = period == 0;
+                if (warmUp) baseHeap = heap;
+
+                StringBuilder over = new StringBuilder();
+                if (!warmUp && heap - baseHeap > heapBudget) over.append(" HEAP");
+                if (!warmUp && perThrow > allocBudget) over.append(" ALLOCATION");
+                if (!warmUp && p99 > pulseBudget) over.append(" PULSE");
+                if (!over.isEmpty()) passed = false;
+
+                System.out.printf("%6ds  throws %9d  heap %7.1f MB (%+.1f)  alloc %6.1f KB/throw  pulse p50 %s  p99 %s  dropped %d%s%s%n",
+                        (period + 1) * sampleSeconds, now[0], heap / 1048576.0, (heap - baseHeap) / 1048576.0,
+                        perThrow / 1024.0, millis(p50), millis(p99),
+                        now[4], warmUp ? "  (warm-up)" : "", over.isEmpty() ? "" : "  OVER BUDGET:" + over);
+            }
+        } finally {
+            pump.shutdownNow();
+            onFx(this::closeListeners);
+        }
+        System.out.print("Scoreboard latency\n" + onFx(controller::getLatencySummary));
+        System.out.println("Budgets: heap growth " + (heapBudget >> 20) + " MB, " + (allocBudget >> 10)
+                + " KB/throw, pulse p99 " + millis(pulseBudget) + ": " + (passed ? "OK" : "OVER BUDGET"));
+        return passed;
+    }
+
+    /** Builds the scoreboard as the app does into a stage and starts timing its pulses. */
+    private Void show() throws Exception {
+        Parent root;
+        if (Boolean.getBoolean("dartcounter.fxml")) {
+            FXMLLoader loader = new FXMLLoader(DartCounterApp.class.getResource("scoreboard-view.fxml"));
+            root = loader.load();
+            controller = loader.getController();
+        } else {
+            controller = new ScoreboardController();
+            root = ScoreboardScene.build(controller);
+        }
+        input = (TextField) root.lookup("#dartInputField");
+        modeToggle = (ToggleButton) root.lookup("#modeToggle");
+        dataDir = Files.createTempDirectory("dartcounter-soak");
+
+        Scene scene = new Scene(root, 1280, 800);
+        scene.addPreLayoutPulseListener(() -> pulseStart = System.nanoTime());
+        scene.addPostLayoutPulseListener(() -> {
+            if (pulseStart != 0) pulse.record(System.nanoTime() - pulseStart);
+            pulseStart = 0;
+        });
+        Stage stage = new Stage();
+        stage.setScene(scene);
+        stage.show();
+
+        newMatch();
+        fxThread = Thread.currentThread().threadId();
+        return null;
+    }
+
+    /** Starts a match with the listeners the app attaches, restarting the journal after the first. */
+    private void newMatch() {
+        try {
+            closeMatchListeners();
+            game = new Game(new Player("Player 1", 501), new Player("Player 2", 501), 501, 3, 3);
+            if (journal == null) {
+                journal = ThrowJournal.open(dataDir.resolve("match.journal"), game);
+                snapshots = MatchSnapshots.open(dataDir.resolve("match.snapshot"), journal);
+            } else {
+                journal.restart();
+            }
+            game.addThrowListener(journal);
+            game.addThrowListener(snapshots);
+            checkoutAdvisor = new CheckoutAdvisor();
+            game.setCheckoutAdvisor(checkoutAdvisor);
+            spectatorFeed = new SpectatorFeed(game, 0);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not start a match", e);
+        }
+        controller.setGame(game);
+        modeLegs = 0;
+    }
+
+    /** Stops the advisor and feed of the match being left. */
+    private void closeMatchListeners() throws IOException {
+        if (checkoutAdvisor != null) checkoutAdvisor.close();
+        if (spectatorFeed != null) spectatorFeed.close();
+    }
+
+    /** Closes every listener and deletes the journal and snapshot. */
+    private Void closeListeners() throws IOException {
+        closeMatchListeners();
+        if (snapshots != null) snapshots.close();
+        if (journal != null) journal.close();
+        Files.deleteIfExists(dataDir.resolve("match.snapshot"));
+        Files.deleteIfExists(dataDir.resolve("match.journal"));
+        Files.deleteIfExists(dataDir);
+        return null;
+    }
+
+    /** Queues one entry on the FX thread, or counts it as dropped if the FX thread is falling behind. */
+    private void pumpOne() {
+        if (backlog.get() >= MAX_BACKLOG) {
+            Platform.runLater(() -> dropped++);
+            return;
+        }
+        backlog.incrementAndGet();
+        Platform.runLater(() -> {
+            backlog.decrementAndGet();
+            enterNext();
+        });
+    }
+
+    /**
+     * Types the next throw into the scoreboard, starting a new match once one is won and switching
+     * input mode at the start of every few legs.
+     */
+    private void enterNext() {
+        if (game.getMatchWinner() != null) newMatch();
+        if (game.getLegsPlayed() >= modeLegs + MODE_SWITCH_LEGS && allAtStart()) {
+            modeLegs = game.getLegsPlayed();
+            modeToggle.fire();
+            perDartMode = !perDartMode;
+        }
+        Player thrower = game.getCurrentPlayer();
+        int score = thrower.getCurrentScore();
+        input.setText(perDartMode ? Dart.name(aim(score, game.getDartsLeft(thrower))) : turnTotal(score));
+        input.fireEvent(new ActionEvent());
+        entries++;
+    }
+
+    private boolean allAtStart() {
+        for (int seat = 0; seat < game.getPlayerCount(); seat++) {
+            if (game.getPlayer(seat).getCurrentScore() != game.getTargetScore()) return false;
+        }
+        return true;
+    }
+
+    private int aim(int score, int dartsLeft) {
+        return model.throwAt(CheckoutTable.aimFor(score, dartsLeft), random);
+    }
+
+    /** Throws a whole turn and writes it as a total entry, with the darts used and at a double on a checkout. */
+    private String turnTotal(int score) {
+        int total = 0;
+        int atDouble = 0;
+        for (int dart = 1; dart <= 3; dart++) {
+            int remaining = score - total;
+            if (remaining == 50 || (remaining <= 40 && remaining % 2 == 0)) atDouble++;
+            int thrown = aim(remaining, 4 - dart);
+            total += Dart.score(thrown);
+            if (total == score && Dart.isDouble(thrown)) return total + "/" + dart + "/" + atDouble;
+            // Bust: a total equal to the score would count as a checkout, so enter it as no score.
+            if (score - total < 2) return total == score ? "0" : Integer.toString(total);
+        }
+        return Integer.toString(total);
+    }
+
+    /** @return entries, FX thread bytes allocated, pulse p50 and p99 since the last call, and dropped entries */
+    private long[] counters() {
+        long[] counters = {entries, threads.getThreadAllocatedBytes(fxThread),
+                pulse.getValueAtPercentile(50), pulse.getValueAtPercentile(99), dropped};
+        pulse.reset();
+        return counters;
+    }
+
+    private static String millis(long nanos) {
+        return String.format("%.2f ms", nanos / 1e6);
+    }
+
+    private static <T> T onFx(Callable<T> task) throws Exception {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        Platform.runLater(() -> {
+            try {
+                result.complete(task.call());
+            } catch (Exception e) {
+                result.completeExceptionally(e);
+            }
+        });
+        return result.get();
+    }
+}
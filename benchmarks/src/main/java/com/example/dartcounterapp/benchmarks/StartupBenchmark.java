@@ -0,0 +1,99 @@
+package com.example.dartcounterapp.benchmarks;
+
+import com.example.dartcounterapp.DartCounterApp;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures cold start of the Dart Counter app, from launching a fresh JVM to the first frame
+ * of the scoreboard, for both the code-built scene and the FXML scene.
+ *
+ * <p>Each run starts the app in its own process with an empty data directory and
+ * {@link DartCounterApp#STARTUP_PROBE_PROPERTY} set. The app then prints the time of its first
+ * pulse and exits. The first run of each mode only warms the OS file cache and is not counted.
+ * The process exits with status 1 if the median code-built start is over budget.</p>
+ *
+ * <p>Arguments: [runs per mode] [budget in ms]</p>
+ */
+public final class StartupBenchmark {
+
+    private static final String MAIN_CLASS = "com.example.dartcounterapp.DartCounterApp";
+
+    private StartupBenchmark() { }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int runs = args.length > 0 ? Integer.parseInt(args[0]) : 10;
+        long budgetMs = args.length > 1 ? Long.parseLong(args[1]) : 1500;
+
+        long[] code = measure(false, runs);
+        long[] fxml = measure(true, runs);
+        report("code-built scene", code);
+        report("FXML scene", fxml);
+
+        long median = code[code.length / 2];
+        System.out.println("Budget " + budgetMs + " ms: " + (median <= budgetMs ? "OK" : "OVER BUDGET"));
+        if (median > budgetMs) System.exit(1);
+    }
+
+    /** @return sorted launch-to-first-frame times in milliseconds */
+    private static long[] measure(boolean fxml, int runs) throws IOException, InterruptedException {
+        long[] millis = new long[runs];
+        for (int i = -1; i < runs; i++) {
+            long ms = launchOnce(fxml);
+            if (i >= 0) millis[i] = ms;
+        }
+        Arrays.sort(millis);
+        return millis;
+    }
+
+    private static long launchOnce(boolean fxml) throws IOException, InterruptedException {
+        Path home = Files.createTempDirectory("dartcounter-startup");
+        List<String> command = new ArrayList<>();
+        command.add(ProcessHandle.current().info().command()
+                .orElse(Path.of(System.getProperty("java.home"), "bin", "java").toString()));
+        command.add("-D" + DartCounterApp.STARTUP_PROBE_PROPERTY + "=true");
+        command.add("-Ddartcounter.fxml=" + fxml);
+        command.add("-Ddartcounter.home=" + home);
+        String modulePath = System.getProperty("jdk.module.path");
+        if (modulePath != null) {
+            command.addAll(List.of("-p", modulePath, "-m", "com.example.dartcounterapp/" + MAIN_CLASS));
+        } else {
+            command.addAll(List.of("-cp", System.getProperty("java.class.path"), MAIN_CLASS));
+        }
+
+        long launched = ChronoUnit.MICROS.between(Instant.EPOCH, Instant.now());
+        Process process = new ProcessBuilder(command)
+                .redirectError(ProcessBuilder.Redirect.DISCARD)
+                .start();
+        try (BufferedReader out = new BufferedReader(
+                new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = out.readLine()) != null) {
+                if (line.startsWith(DartCounterApp.FIRST_FRAME)) {
+                    long frame = Long.parseLong(line.substring(DartCounterApp.FIRST_FRAME.length()).trim());
+                    return (frame - launched) / 1000;
+                }
+            }
+        } finally {
+            if (!process.waitFor(30, TimeUnit.SECONDS)) process.destroyForcibly();
+        }
+        throw new IOException("App exited without reporting its first frame (exit " + process.exitValue() + ")");
+    }
+
+    private static void report(String mode, long[] millis) {
+        System.out.printf("%-17s min %5d ms  median %5d ms  p90 %5d ms  max %5d ms  (%d runs)%n", mode,
+                millis[0], millis[millis.length / 2], millis[(int) (millis.length * 0.9)],
+                millis[millis.length - 1], millis.length);
+    }
+}
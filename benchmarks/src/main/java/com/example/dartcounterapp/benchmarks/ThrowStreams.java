@@ -0,0 +1,88 @@
+package com.example.dartcounterapp.benchmarks;
+
+import com.example.dartcounterapp.AccuracyModel;
+import com.example.dartcounterapp.CheckoutTable;
+import com.example.dartcounterapp.Dart;
+import com.example.dartcounterapp.Game;
+import com.example.dartcounterapp.Player;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Builds repeatable throw streams for the benchmarks by playing legs through a real {@link Game}.
+ * Stream lengths are rounded down to a power of two so benchmarks can cycle with a mask.
+ */
+final class ThrowStreams {
+
+    /** Encoded darts in throw order. */
+    final int[] darts;
+
+    /** Dart entries as a scorer would type them. */
+    final String[] tokens;
+
+    /** Per-turn totals, as entered in total mode. */
+    final int[] totals;
+
+    private ThrowStreams(int[] darts, int[] totals) {
+        this.darts = darts;
+        this.totals = totals;
+        this.tokens = new String[darts.length];
+        for (int i = 0; i < darts.length; i++) tokens[i] = token(darts[i]);
+    }
+
+    /**
+     * Plays full 501 legs between two players of the given skill, aiming at the checkout table.
+     */
+    static ThrowStreams realistic(double skill, int dartCount, long seed) {
+        return play(AccuracyModel.forSkill(skill), 0.0, dartCount, seed);
+    }
+
+    /**
+     * Plays 501 legs where, once on a finish, players often go for a big treble instead,
+     * so a large share of turns end in a bust.
+     */
+    static ThrowStreams bustHeavy(double skill, int dartCount, long seed) {
+        return play(AccuracyModel.forSkill(skill), 0.6, dartCount, seed);
+    }
+
+    private static ThrowStreams play(AccuracyModel model, double recklessness, int dartCount, long seed) {
+        int size = Integer.highestOneBit(dartCount);
+        int[] darts = new int[size];
+        int[] totals = new int[size];
+        int turns = 0;
+        int turnTotal = 0;
+
+        SplittableRandom rng = new SplittableRandom(seed);
+        Game game = new Game(new Player("A", 501), new Player("B", 501), 501, 3, Integer.MAX_VALUE);
+
+        for (int i = 0; i < size; i++) {
+            Player thrower = game.getCurrentPlayer();
+            int score = thrower.getCurrentScore();
+            int aim = (score <= CheckoutTable.MAX_CHECKOUT && rng.nextDouble() < recklessness)
+                    ? Dart.of(20, 3)
+                    : CheckoutTable.aimFor(score, game.getDartsLeft(thrower));
+
+            int dart = model.throwAt(aim, rng);
+            darts[i] = dart;
+            turnTotal += Dart.score(dart);
+
+            game.throwDart(dart);
+            if (game.getDartsThrown() == 0) {
+                totals[turns++] = turnTotal;
+                turnTotal = 0;
+            }
+        }
+
+        return new ThrowStreams(darts, Arrays.copyOf(totals, Integer.highestOneBit(Math.max(1, turns))));
+    }
+
+    private static String token(int dart) {
+        return switch (Dart.multiplier(dart)) {
+            case 0 -> "0";
+            case 1 -> Dart.segment(dart) == 25 ? "25" : "s" + Dart.segment(dart);
+            case 2 -> Dart.segment(dart) == 25 ? "50" : "d" + Dart.segment(dart);
+            default -> "t" + Dart.segment(dart);
+        };
+    }
+}
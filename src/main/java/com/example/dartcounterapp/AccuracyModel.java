@@ -0,0 +1,136 @@
+package com.example.dartcounterapp;
+
+import java.util.SplittableRandom;
+
+/**
+ * A simple per-player accuracy model: given the dart a player aims at, samples the dart
+ * they actually hit. Misses land in the same segment's single bed or in a neighbouring
+ * segment on the board, and missed doubles can fall off the board entirely.
+ * Sampling allocates nothing, so it can be called on every simulated throw.
+ */
+public final class AccuracyModel {
+
+    /** Segments in clockwise order around the board, starting at the top. */
+    private static final int[] BOARD_ORDER = {
+            20, 1, 18, 4, 13, 6, 10, 15, 2, 17, 3, 19, 7, 16, 8, 11, 14, 9, 12, 5
+    };
+
+    /** Position of each segment in {@link #BOARD_ORDER}. */
+    private static final int[] BOARD_POSITION = new int[21];
+
+    static {
+        for (int i = 0; i < BOARD_ORDER.length; i++) BOARD_POSITION[BOARD_ORDER[i]] = i;
+    }
+
+    /** Mean score of a dart that misses the treble 20: mostly single 20, else 5, 1 or their trebles. */
+    private static final double T20_MISS_MEAN = 0.70 * 20 + 0.25 * (5 + 1) / 2.0 + 0.05 * 3 * (5 + 1) / 2.0;
+
+    /** Skill assumed for a player with no recorded darts. */
+    private static final double PRIOR_SKILL = 0.5;
+
+    /** Darts of evidence the prior is worth when blending it with a player's record. */
+    private static final double PRIOR_DARTS = 30;
+
+    private final double trebleHit;
+    private final double doubleHit;
+    private final double singleHit;
+    private final double bullHit;
+
+    /**
+     * @param trebleHit chance of hitting the treble aimed at
+     * @param doubleHit chance of hitting the double aimed at
+     * @param singleHit chance of hitting the single segment aimed at
+     * @param bullHit chance of hitting the inner bull when aiming at it
+     */
+    public AccuracyModel(double trebleHit, double doubleHit, double singleHit, double bullHit) {
+        this.trebleHit = trebleHit;
+        this.doubleHit = doubleHit;
+        this.singleHit = singleHit;
+        this.bullHit = bullHit;
+    }
+
+    /**
+     * Builds a model from a single skill level between 0 (a beginner) and 1 (a top professional).
+     */
+    public static AccuracyModel forSkill(double skill) {
+        double s = Math.max(0.0, Math.min(1.0, skill));
+        return new AccuracyModel(
+                0.05 + 0.40 * s,
+                0.08 + 0.37 * s,
+                0.60 + 0.35 * s,
+                0.04 + 0.26 * s);
+    }
+
+    /**
+     * Estimates a model from a player's recorded darts. The overall skill is fitted so that
+     * aiming every dart at the treble 20 would give the player's scoring rate, and the double
+     * hit rate is the player's rate at finishing doubles. Both lean towards an average player
+     * while there are only a few darts to go on.
+     */
+    public static AccuracyModel estimate(PlayerStats stats) {
+        double skill = PRIOR_SKILL;
+        long darts = stats.getTotalDarts();
+        if (darts > 0) {
+            double perDart = (double) stats.getTotalPoints() / darts;
+            double trebleRate = (perDart - T20_MISS_MEAN) / (60 - T20_MISS_MEAN);
+            double fitted = Math.max(0.0, Math.min(1.0, (trebleRate - 0.05) / 0.40));
+            double weight = darts / (darts + PRIOR_DARTS);
+            skill = weight * fitted + (1 - weight) * PRIOR_SKILL;
+        }
+        AccuracyModel base = forSkill(skill);
+        double doubleHit = (stats.getCheckoutHits() + base.doubleHit * PRIOR_DARTS)
+                / (stats.getCheckoutAttempts() + PRIOR_DARTS);
+        return new AccuracyModel(base.trebleHit, doubleHit, base.singleHit, base.bullHit);
+    }
+
+    public double getTrebleHit() { return trebleHit; }
+    public double getDoubleHit() { return doubleHit; }
+    public double getSingleHit() { return singleHit; }
+    public double getBullHit() { return bullHit; }
+
+    /**
+     * Samples the dart hit when aiming at the given target.
+     *
+     * @param target the encoded {@link Dart} aimed at
+     * @param rng the thread's random source
+     * @return the encoded dart hit
+     */
+    public int throwAt(int target, SplittableRandom rng) {
+        int segment = Dart.segment(target);
+        int multiplier = Dart.multiplier(target);
+        double roll = rng.nextDouble();
+
+        if (segment == 25) {
+            if (roll < bullHit) return Dart.BULL;
+            if (roll < bullHit + (1 - bullHit) * 0.55) return Dart.OUTER_BULL;
+            return Dart.of(BOARD_ORDER[rng.nextInt(BOARD_ORDER.length)], 1);
+        }
+
+        return switch (multiplier) {
+            case 3 -> {
+                if (roll < trebleHit) yield target;
+                double miss = (roll - trebleHit) / (1 - trebleHit);
+                if (miss < 0.70) yield Dart.of(segment, 1);
+                if (miss < 0.95) yield Dart.of(neighbour(segment, rng), 1);
+                yield Dart.of(neighbour(segment, rng), 3);
+            }
+            case 2 -> {
+                if (roll < doubleHit) yield target;
+                double miss = (roll - doubleHit) / (1 - doubleHit);
+                if (miss < 0.45) yield Dart.of(segment, 1);
+                if (miss < 0.85) yield Dart.MISS;
+                yield Dart.of(neighbour(segment, rng), miss < 0.95 ? 2 : 1);
+            }
+            case 1 -> {
+                if (roll < singleHit) yield target;
+                yield Dart.of(neighbour(segment, rng), 1);
+            }
+            default -> Dart.MISS;
+        };
+    }
+
+    private static int neighbour(int segment, SplittableRandom rng) {
+        int position = BOARD_POSITION[segment] + (rng.nextBoolean() ? 1 : BOARD_ORDER.length - 1);
+        return BOARD_ORDER[position % BOARD_ORDER.length];
+    }
+}
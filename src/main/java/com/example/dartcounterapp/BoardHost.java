@@ -0,0 +1,254 @@
+package com.example.dartcounterapp;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Headless host that runs many independent boards, each with its own {@link Game}, in one JVM.
+ *
+ * <p>Every board is a single-writer actor: one virtual thread owns the board's Game and
+ * applies commands from its mailbox in order, so Game and Player never see concurrent
+ * access and boards never contend with each other. Clients connect over a local socket,
+ * each connection served by its own virtual thread, and send one command per line:</p>
+ * <pre>
+ *   &lt;board&gt; DART &lt;dart&gt;    e.g. "3 DART T20"
+ *   &lt;board&gt; TOTAL &lt;score&gt;  e.g. "3 TOTAL 100"
+ *   &lt;board&gt; STATE
+ *   &lt;board&gt; NEW             starts a new match on the board
+ *   QUIT
+ * </pre>
+ * <p>Each command gets one reply line:
+ * {@code OK <p1 score> <p2 score> <current 1|2> <p1 legs> <p2 legs> <p1 sets> <p2 sets> <message>}
+ * or {@code ERR <message>}. Once a board's match is won, its DART and TOTAL commands are
+ * refused until NEW. A command that fails inside the game is answered with an error and the
+ * board carries on.</p>
+ */
+public final class BoardHost implements Closeable {
+
+    private static final long REPLY_TIMEOUT_SECONDS = 10;
+
+    private final ServerSocket server;
+    private final Board[] boards;
+    private final ExecutorService connections = Executors.newVirtualThreadPerTaskExecutor();
+    private volatile boolean running = true;
+
+    /**
+     * Starts the boards and begins accepting connections on the loopback interface.
+     *
+     * @param boardCount number of boards, numbered from 0
+     * @param port port to listen on, or 0 for any free port
+     * @param targetScore starting score of each leg
+     * @param legsPerSet legs needed to win a set
+     * @param setsToWin sets needed to win the match
+     * @throws IOException if the server socket cannot be opened
+     */
+    public BoardHost(int boardCount, int port, int targetScore, int legsPerSet, int setsToWin) throws IOException {
+        this.server = new ServerSocket(port, 1024, InetAddress.getLoopbackAddress());
+        this.boards = new Board[boardCount];
+        for (int i = 0; i < boardCount; i++) boards[i] = new Board(i, targetScore, legsPerSet, setsToWin);
+        Thread.ofVirtual().name("board-host-accept").start(this::acceptLoop);
+    }
+
+    /** @return the port the host is listening on */
+    public int getPort() { return server.getLocalPort(); }
+
+    /** @return number of boards hosted */
+    public int getBoardCount() { return boards.length; }
+
+    private void acceptLoop() {
+        while (running) {
+            try {
+                Socket socket = server.accept();
+                connections.submit(() -> serve(socket));
+            } catch (IOException e) {
+                if (running) System.err.println("Board host accept failed: " + e.getMessage());
+            }
+        }
+    }
+
+    private void serve(Socket socket) {
+        try (socket;
+             BufferedReader in = new BufferedReader(
+                     new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+             PrintWriter out = new PrintWriter(
+                     new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.US_ASCII), false)) {
+            socket.setTcpNoDelay(true);
+            String line;
+            while ((line = in.readLine()) != null) {
+                if (line.equalsIgnoreCase("QUIT")) break;
+                out.print(handle(line));
+                out.print('\n');
+                out.flush();
+            }
+        } catch (IOException e) {
+            // Client went away; nothing to clean up beyond the socket.
+        }
+    }
+
+    /** Parses one command line and waits for the owning board to apply it. */
+    private String handle(String line) {
+        String[] parts = line.trim().split("\\s+");
+        if (parts.length < 2) return "ERR Expected: <board> DART|TOTAL|STATE|NEW [value]";
+
+        int boardId;
+        try {
+            boardId = Integer.parseInt(parts[0]);
+        } catch (NumberFormatException e) {
+            return "ERR Invalid board: " + parts[0];
+        }
+        if (boardId < 0 || boardId >= boards.length) return "ERR Unknown board: " + boardId;
+
+        Command command;
+        switch (parts[1].toUpperCase()) {
+            case "DART" -> {
+                int dart = parts.length > 2 ? Dart.parse(parts[2]) : Dart.INVALID;
+                if (dart == Dart.INVALID) return "ERR Invalid dart entry!";
+                command = new Command(CommandType.DART, dart);
+            }
+            case "TOTAL" -> {
+                try {
+                    command = new Command(CommandType.TOTAL, Integer.parseInt(parts[2]));
+                } catch (ArrayIndexOutOfBoundsException | NumberFormatException e) {
+                    return "ERR Enter a valid total (number only).";
+                }
+            }
+            case "STATE" -> command = new Command(CommandType.STATE, 0);
+            case "NEW" -> command = new Command(CommandType.NEW, 0);
+            default -> {
+                return "ERR Unknown command: " + parts[1];
+            }
+        }
+
+        try {
+            return boards[boardId].submit(command).get(REPLY_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return "ERR Interrupted";
+        } catch (ExecutionException e) {
+            return "ERR " + e.getCause();
+        } catch (TimeoutException e) {
+            return "ERR Board " + boardId + " did not reply";
+        }
+    }
+
+    /** Stops accepting connections and shuts every board down. */
+    @Override
+    public void close() throws IOException {
+        running = false;
+        server.close();
+        connections.shutdownNow();
+        for (Board board : boards) board.stop();
+    }
+
+    private enum CommandType { DART, TOTAL, STATE, NEW, STOP }
+
+    private record Command(CommandType type, int value, CompletableFuture<String> reply) {
+        Command(CommandType type, int value) {
+            this(type, value, new CompletableFuture<>());
+        }
+    }
+
+    /** One board: a Game and the only thread allowed to touch it, or to replace it. */
+    private static final class Board {
+
+        private final int targetScore;
+        private final int legsPerSet;
+        private final int setsToWin;
+        private Game game;
+        private final BlockingQueue<Command> mailbox = new LinkedBlockingQueue<>();
+
+        Board(int id, int targetScore, int legsPerSet, int setsToWin) {
+            this.targetScore = targetScore;
+            this.legsPerSet = legsPerSet;
+            this.setsToWin = setsToWin;
+            this.game = newGame();
+            Thread.ofVirtual().name("board-" + id).start(this::run);
+        }
+
+        private Game newGame() {
+            return new Game(new Player("Player 1", targetScore), new Player("Player 2", targetScore),
+                    targetScore, legsPerSet, setsToWin);
+        }
+
+        CompletableFuture<String> submit(Command command) {
+            mailbox.add(command);
+            return command.reply();
+        }
+
+        void stop() {
+            mailbox.add(new Command(CommandType.STOP, 0));
+        }
+
+        private void run() {
+            while (true) {
+                Command command;
+                try {
+                    command = mailbox.take();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                if (command.type() == CommandType.STOP) return;
+                // A command that throws fails only its own reply; the board goes on serving.
+                try {
+                    command.reply().complete(apply(command));
+                } catch (RuntimeException e) {
+                    command.reply().completeExceptionally(e);
+                }
+            }
+        }
+
+        private String apply(Command command) {
+            if (command.type() == CommandType.NEW) {
+                game = newGame();
+                return state("New match");
+            }
+            Player thrower = game.getCurrentPlayer();
+            // A won match refuses throws with MATCH_OVER, so they are answered with an error.
+            ThrowResult result = switch (command.type()) {
+                case DART -> game.throwDart(command.value());
+                case TOTAL -> game.throwTotal(command.value());
+                case STATE, NEW, STOP -> ThrowResult.NONE;
+            };
+            String message = result.describe(game.getSideName(thrower.getSide()));
+            return result.isValid() ? state(message) : "ERR " + message;
+        }
+
+        private String state(String message) {
+            Player p1 = game.getPlayer1();
+            Player p2 = game.getPlayer2();
+            return "OK " + p1.getCurrentScore() + ' ' + p2.getCurrentScore()
+                    + ' ' + (game.getCurrentPlayer() == p1 ? 1 : 2)
+                    + ' ' + p1.getLegsWon() + ' ' + p2.getLegsWon()
+                    + ' ' + p1.getSetsWon() + ' ' + p2.getSetsWon()
+                    + ' ' + message;
+        }
+    }
+
+    /**
+     * Runs a host until the process is stopped.
+     * Arguments: [boards] [port]
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int boardCount = args.length > 0 ? Integer.parseInt(args[0]) : 16;
+        int port = args.length > 1 ? Integer.parseInt(args[1]) : 7501;
+        BoardHost host = new BoardHost(boardCount, port, 501, 3, 3);
+        System.out.println("Hosting " + boardCount + " boards on port " + host.getPort());
+        Thread.currentThread().join();
+    }
+}
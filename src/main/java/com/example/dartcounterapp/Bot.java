@@ -0,0 +1,163 @@
+package com.example.dartcounterapp;
+
+import java.io.Closeable;
+import java.util.SplittableRandom;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntConsumer;
+
+/**
+ * A computer opponent for practice. It aims where the {@link CheckoutTable} says, or on the
+ * game's own {@link Rules} route when the leg does not end on a double, and hits what its
+ * {@link AccuracyModel} samples. Aiming is a table lookup and sampling draws from a
+ * {@link SplittableRandom} without allocating, so a decision takes well under a microsecond and never
+ * leaves garbage behind; each one is still timed against a per-dart budget.
+ *
+ * <p>{@link #forAverage} picks the skill that gives a chosen three-dart average from a curve
+ * precomputed by simulating legs of 501 with the same aiming and sampling. The
+ * {@code BotCalibration} harness in the benchmarks module checks the result by playing
+ * thousands of legs through {@link Game}.</p>
+ *
+ * <p>{@link #throwLater} decides on the bot's own thread, never the FX thread. A bot is not
+ * thread-safe otherwise: call {@link #nextDart} from one thread at a time.</p>
+ */
+public final class Bot implements Closeable {
+
+    /** Per-dart decision budget used unless another is given. */
+    public static final long DEFAULT_BUDGET_NANOS = 250_000;
+
+    /**
+     * Three-dart average at each skill from 0 to 1 in twentieths, from
+     * {@link #simulateAverage} over 20,000 legs with seed 1. {@link #skillFor} interpolates in
+     * it, so creating a bot costs nothing at startup; rebuild it if the aiming or the accuracy
+     * model changes.
+     */
+    private static final double[] AVERAGE_BY_SKILL = {
+            32.16, 36.46, 40.40, 44.00, 47.37, 50.69, 53.79, 56.71, 59.79, 62.76, 65.52,
+            68.50, 71.47, 74.24, 77.01, 79.74, 82.43, 85.02, 87.81, 90.54, 92.97};
+    private static final int SKILL_STEPS = 20;
+
+    private final AccuracyModel model;
+    private final SplittableRandom rng;
+    private final long budgetNanos;
+    private final LatencyHistogram decisions = new LatencyHistogram();
+    private long overBudget;
+    private ScheduledExecutorService thread;
+
+    /**
+     * @param model how accurately the bot throws
+     * @param seed seed for the bot's random source, so a practice session can be repeated
+     * @param budgetNanos time each decision should take at most
+     */
+    public Bot(AccuracyModel model, long seed, long budgetNanos) {
+        this.model = model;
+        this.rng = new SplittableRandom(seed);
+        this.budgetNanos = budgetNanos;
+    }
+
+    /**
+     * Creates a bot that averages about the given points per three darts at 501 double out,
+     * within what {@link AccuracyModel#forSkill} can reach (roughly 32 to 93).
+     */
+    public static Bot forAverage(double average, long seed) {
+        return new Bot(AccuracyModel.forSkill(skillFor(average)), seed, DEFAULT_BUDGET_NANOS);
+    }
+
+    /** @return the skill whose simulated three-dart average is the given one, clamped to 0 to 1 */
+    public static double skillFor(double average) {
+        if (average <= AVERAGE_BY_SKILL[0]) return 0.0;
+        for (int step = 1; step <= SKILL_STEPS; step++) {
+            double high = AVERAGE_BY_SKILL[step];
+            if (average <= high) {
+                double low = AVERAGE_BY_SKILL[step - 1];
+                return (step - 1 + (average - low) / (high - low)) / SKILL_STEPS;
+            }
+        }
+        return 1.0;
+    }
+
+    /**
+     * Plays legs of 501 double out alone, without a {@link Game}, counting a bust as three
+     * darts for no score as {@link PlayerStats} does. This is how {@link #AVERAGE_BY_SKILL} was built.
+     *
+     * @return the three-dart average over the legs
+     */
+    static double simulateAverage(AccuracyModel model, int legs, long seed) {
+        Rules rules = Rules.STANDARD;
+        SplittableRandom rng = new SplittableRandom(seed);
+        long darts = 0;
+        for (int leg = 0; leg < legs; leg++) {
+            int score = rules.getStartScore();
+            while (score > 0) {
+                int turnStart = score;
+                for (int dart = 1; dart <= 3; dart++) {
+                    int next = rules.next(score, model.throwAt(aim(rules, score, 4 - dart), rng));
+                    if (next == Rules.BUST) {
+                        score = turnStart;
+                        darts += 3;
+                        break;
+                    }
+                    score = next;
+                    if (score == 0 || dart == 3) {
+                        darts += score == 0 ? dart : 3;
+                        break;
+                    }
+                }
+            }
+        }
+        return 3.0 * rules.getStartScore() * legs / darts;
+    }
+
+    private static int aim(Rules rules, int score, int dartsLeft) {
+        return rules.usesCheckoutTable(score) ? CheckoutTable.aimFor(score, dartsLeft) : rules.aimFor(score);
+    }
+
+    /**
+     * Chooses a target and throws at it.
+     *
+     * @param rules the rules the leg is played to
+     * @param score the bot's remaining score
+     * @param dartsLeft darts left in the turn (1 to 3)
+     * @return the encoded {@link Dart} hit
+     */
+    public int nextDart(Rules rules, int score, int dartsLeft) {
+        long start = System.nanoTime();
+        int dart = model.throwAt(aim(rules, score, dartsLeft), rng);
+        long took = System.nanoTime() - start;
+        decisions.record(took);
+        if (took > budgetNanos) overBudget++;
+        return dart;
+    }
+
+    /**
+     * Decides the next dart on the bot's thread after a pause, so a person can follow the
+     * throws, and hands it to {@code onDart} on that thread.
+     */
+    public synchronized void throwLater(Rules rules, int score, int dartsLeft, long delayMillis, IntConsumer onDart) {
+        if (thread == null) {
+            thread = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "dartcounter-bot");
+                t.setDaemon(true);
+                return t;
+            });
+        }
+        thread.schedule(() -> onDart.accept(nextDart(rules, score, dartsLeft)), delayMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public AccuracyModel getModel() { return model; }
+
+    public long getBudgetNanos() { return budgetNanos; }
+
+    /** @return decisions that took longer than the budget */
+    public long getOverBudget() { return overBudget; }
+
+    /** @return decision times, in nanoseconds */
+    public LatencyHistogram getDecisionTimes() { return decisions; }
+
+    /** Stops the bot's thread; darts still waiting to be thrown are dropped. */
+    @Override
+    public synchronized void close() {
+        if (thread != null) thread.shutdownNow();
+    }
+}
@@ -0,0 +1,271 @@
+package com.example.dartcounterapp;
+
+import java.io.Closeable;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Suggests, for each player, the checkout route most likely to finish the leg this turn
+ * given that player's own accuracy, rather than one fixed route for everyone.
+ *
+ * <p>Each player's {@link AccuracyModel} is estimated from their recorded darts. For every
+ * dart that can be aimed at, the model's spread of outcomes is measured by Monte Carlo
+ * simulation; a dynamic program over (score, darts left) then picks the target that
+ * maximises the chance of checking out, and the result is stored in a per-player
+ * {@link FinishTable}. Solving runs on a background thread and, when a player's model
+ * drifts, only the outcome spreads whose hit rate changed are re-simulated.</p>
+ *
+ * <p>Lookups read the player's current table, so they are O(1) and safe on the UI
+ * thread. Until a player's first table is ready, the fixed {@link CheckoutTable} routes
+ * are returned.</p>
+ */
+public final class CheckoutAdvisor implements ThrowListener, Closeable {
+
+    private static final int MAX_DARTS = 3;
+    private static final int SAMPLES = 20_000;
+
+    /** Smallest change in any hit rate that is worth re-solving a player's table for. */
+    private static final double REFRESH_THRESHOLD = 0.01;
+
+    private static final int TREBLES = 0;
+    private static final int DOUBLES = 1;
+    private static final int SINGLES = 2;
+    private static final int BULLS = 3;
+
+    /** Every dart worth aiming at: singles, doubles and trebles 1-20, the outer bull and the bull. */
+    private static final int[] TARGETS = new int[20 * 3 + 2];
+
+    static {
+        int n = 0;
+        for (int multiplier = 3; multiplier >= 1; multiplier--) {
+            for (int segment = 20; segment >= 1; segment--) TARGETS[n++] = Dart.of(segment, multiplier);
+        }
+        TARGETS[n++] = Dart.BULL;
+        TARGETS[n] = Dart.OUTER_BULL;
+    }
+
+    private final Map<Player, Entry> entries = new ConcurrentHashMap<>();
+    private final ExecutorService solver = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "checkout-advisor");
+        t.setDaemon(true);
+        return t;
+    });
+
+    /**
+     * Returns the route most likely to check out for the player, or the fixed route
+     * while the player's table is still being solved.
+     *
+     * @return the route text, or an empty string when no checkout exists
+     */
+    public String suggestion(Player player, int score, int dartsLeft) {
+        FinishTable table = table(player);
+        if (table == null) return CheckoutTable.suggestion(score, dartsLeft);
+        return table.text(score, dartsLeft);
+    }
+
+    /**
+     * @return the player's chance of checking out from the score this turn when following the
+     *         advice, or -1 while the player's table is still being solved
+     */
+    public double getFinishProbability(Player player, int score, int dartsLeft) {
+        FinishTable table = table(player);
+        return table == null ? -1 : table.probability(score, dartsLeft);
+    }
+
+    /** @return the model behind the player's current table, or null if none is ready yet */
+    public AccuracyModel getModel(Player player) {
+        FinishTable table = table(player);
+        return table == null ? null : table.model;
+    }
+
+    private FinishTable table(Player player) {
+        Entry entry = entries.get(player);
+        return entry == null ? null : entry.table;
+    }
+
+    /**
+     * Re-estimates the player's accuracy from their statistics and, if it has moved enough
+     * to matter, queues a re-solve of their table. Call from the thread driving the game.
+     */
+    public void refresh(Player player) {
+        AccuracyModel model = AccuracyModel.estimate(player.getStats());
+        Entry entry = entries.computeIfAbsent(player, p -> new Entry());
+        AccuracyModel requested = entry.requested;
+        if (requested != null && !differs(requested, model)) return;
+        entry.requested = model;
+        if (entry.queued.compareAndSet(false, true)) solver.execute(() -> solve(entry));
+    }
+
+    @Override
+    public void onDart(Game game, Player thrower, int dart) {
+        refresh(thrower);
+    }
+
+    @Override
+    public void onTotal(Game game, Player thrower, int total, int darts, int dartsAtDouble) {
+        refresh(thrower);
+    }
+
+    /** Re-estimates every player, as taking a throw back changes their statistics. */
+    @Override
+    public void onUndo(Game game) {
+        for (int seat = 0; seat < game.getPlayerCount(); seat++) refresh(game.getPlayer(seat));
+    }
+
+    /** Stops the background solver. */
+    @Override
+    public void close() {
+        solver.shutdownNow();
+    }
+
+    private static boolean differs(AccuracyModel a, AccuracyModel b) {
+        return Math.abs(a.getTrebleHit() - b.getTrebleHit()) >= REFRESH_THRESHOLD
+                || Math.abs(a.getDoubleHit() - b.getDoubleHit()) >= REFRESH_THRESHOLD
+                || Math.abs(a.getSingleHit() - b.getSingleHit()) >= REFRESH_THRESHOLD
+                || Math.abs(a.getBullHit() - b.getBullHit()) >= REFRESH_THRESHOLD;
+    }
+
+    private static void solve(Entry entry) {
+        entry.queued.set(false);
+        AccuracyModel model = entry.requested;
+        entry.outcomes.update(model);
+        entry.table = FinishTable.solve(model, entry.outcomes);
+    }
+
+    /** A player's published table and the solver's working state for them. */
+    private static final class Entry {
+        volatile FinishTable table;
+        volatile AccuracyModel requested;
+        final AtomicBoolean queued = new AtomicBoolean();
+        final Outcomes outcomes = new Outcomes();
+    }
+
+    /**
+     * The spread of darts hit when aiming at each target, measured by simulation.
+     * Owned by the solver thread.
+     */
+    private static final class Outcomes {
+        final int[][] codes = new int[TARGETS.length][];
+        final double[][] chances = new double[TARGETS.length][];
+        private final double[] simulatedRate = {-1, -1, -1, -1};
+
+        /** Re-simulates only the targets whose hit rate in the model has changed. */
+        void update(AccuracyModel model) {
+            double[] rates = {model.getTrebleHit(), model.getDoubleHit(), model.getSingleHit(), model.getBullHit()};
+            int[] counts = new int[Dart.CODE_LIMIT];
+            for (int t = 0; t < TARGETS.length; t++) {
+                int kind = kindOf(TARGETS[t]);
+                if (rates[kind] == simulatedRate[kind]) continue;
+
+                Arrays.fill(counts, 0);
+                SplittableRandom rng = new SplittableRandom(TARGETS[t]);
+                for (int i = 0; i < SAMPLES; i++) counts[model.throwAt(TARGETS[t], rng)]++;
+
+                int distinct = 0;
+                for (int count : counts) if (count > 0) distinct++;
+                codes[t] = new int[distinct];
+                chances[t] = new double[distinct];
+                for (int code = 0, k = 0; code < counts.length; code++) {
+                    if (counts[code] == 0) continue;
+                    codes[t][k] = code;
+                    chances[t][k++] = (double) counts[code] / SAMPLES;
+                }
+            }
+            System.arraycopy(rates, 0, simulatedRate, 0, rates.length);
+        }
+
+        private static int kindOf(int target) {
+            if (Dart.segment(target) == 25) return BULLS;
+            return switch (Dart.multiplier(target)) {
+                case 3 -> TREBLES;
+                case 2 -> DOUBLES;
+                default -> SINGLES;
+            };
+        }
+    }
+
+    /** One player's best target, finish chance and route text for every (score, darts left). */
+    private static final class FinishTable {
+        final AccuracyModel model;
+        private final int[] best = new int[(CheckoutTable.MAX_CHECKOUT + 1) * MAX_DARTS];
+        private final double[] chance = new double[best.length];
+        private final String[] text = new String[best.length];
+
+        private FinishTable(AccuracyModel model) {
+            this.model = model;
+        }
+
+        private static int index(int score, int dartsLeft) {
+            return score * MAX_DARTS + dartsLeft - 1;
+        }
+
+        String text(int score, int dartsLeft) {
+            if (score < 2 || score > CheckoutTable.MAX_CHECKOUT || dartsLeft < 1 || dartsLeft > MAX_DARTS) return "";
+            return text[index(score, dartsLeft)];
+        }
+
+        double probability(int score, int dartsLeft) {
+            if (score < 2 || score > CheckoutTable.MAX_CHECKOUT || dartsLeft < 1 || dartsLeft > MAX_DARTS) return 0;
+            return chance[index(score, dartsLeft)];
+        }
+
+        /** Fills the table one dart at a time, each layer using the finish chances of the one below. */
+        static FinishTable solve(AccuracyModel model, Outcomes outcomes) {
+            FinishTable table = new FinishTable(model);
+            for (int darts = 1; darts <= MAX_DARTS; darts++) {
+                for (int score = 2; score <= CheckoutTable.MAX_CHECKOUT; score++) {
+                    int bestTarget = Dart.INVALID;
+                    double bestChance = 0;
+                    for (int t = 0; t < TARGETS.length; t++) {
+                        double p = table.finishChance(score, darts, outcomes.codes[t], outcomes.chances[t]);
+                        if (p > bestChance) {
+                            bestChance = p;
+                            bestTarget = TARGETS[t];
+                        }
+                    }
+                    table.best[index(score, darts)] = bestTarget;
+                    table.chance[index(score, darts)] = bestChance;
+                }
+            }
+            for (int darts = 1; darts <= MAX_DARTS; darts++) {
+                for (int score = 0; score <= CheckoutTable.MAX_CHECKOUT; score++) {
+                    table.text[index(score, darts)] = table.route(score, darts);
+                }
+            }
+            return table;
+        }
+
+        private double finishChance(int score, int darts, int[] codes, double[] chances) {
+            double p = 0;
+            for (int k = 0; k < codes.length; k++) {
+                int left = score - Dart.score(codes[k]);
+                if (left == 0) {
+                    if (Dart.isDouble(codes[k])) p += chances[k];
+                } else if (left >= 2 && darts > 1) {
+                    p += chances[k] * chance[index(left, darts - 1)];
+                }
+            }
+            return p;
+        }
+
+        /** @return the darts aimed at if each one hits, or an empty string if the score can't be finished */
+        private String route(int score, int darts) {
+            if (score < 2 || chance[index(score, darts)] == 0) return "";
+            StringBuilder route = new StringBuilder();
+            while (score >= 2 && darts >= 1) {
+                int target = best[index(score, darts)];
+                if (target == Dart.INVALID) break;
+                if (route.length() > 0) route.append(' ');
+                route.append(Dart.name(target));
+                score -= Dart.score(target);
+                darts--;
+            }
+            return route.toString();
+        }
+    }
+}
@@ -0,0 +1,257 @@
+package com.example.dartcounterapp;
+
+import java.util.Arrays;
+
+/**
+ * Precomputed checkout routes for every finishable score with 1, 2 or 3 darts left.
+ * Routes are generated once when the class is loaded and stored in flat arrays
+ * indexed by score and darts remaining, so lookups are O(1) and allocation-free.
+ */
+public final class CheckoutTable {
+
+    /** Highest score that can be checked out with three darts. */
+    public static final int MAX_CHECKOUT = 170;
+
+    /** Number of routes kept per state: the preferred route followed by alternatives. */
+    public static final int ROUTES_PER_STATE = 3;
+
+    private static final int MAX_DARTS = 3;
+    private static final int NO_ROUTE = 0;
+    private static final int TREBLE_20 = Dart.of(20, 3);
+
+    /** Finishing doubles in order of preference (25 is the bull). */
+    private static final int[] DOUBLE_PREFERENCE = {
+            20, 16, 18, 8, 12, 10, 19, 14, 17, 15, 13, 11, 9, 7, 6, 5, 4, 3, 2, 1, 25
+    };
+
+    /** Setup darts in the order they are tried, so ties resolve to the earlier dart. */
+    private static final int[] SETUP_DARTS = buildSetupDarts();
+
+    /** Packed routes, indexed by {@link #index(int, int, int)}. */
+    private static final int[] ROUTES = new int[(MAX_CHECKOUT + 1) * MAX_DARTS * ROUTES_PER_STATE];
+
+    /** Display text for each packed route, sharing the layout of {@link #ROUTES}. */
+    private static final String[] ROUTE_TEXT = new String[ROUTES.length];
+
+    static {
+        solve();
+    }
+
+    private CheckoutTable() { }
+
+    /**
+     * Returns the preferred checkout route for a score.
+     *
+     * @param score the remaining score
+     * @param dartsLeft darts left in the turn (1 to 3)
+     * @return the route text, or an empty string when no checkout exists
+     */
+    public static String suggestion(int score, int dartsLeft) {
+        return text(score, dartsLeft, 0);
+    }
+
+    /**
+     * Returns a ranked checkout route for a score.
+     *
+     * @param score the remaining score
+     * @param dartsLeft darts left in the turn (1 to 3)
+     * @param rank 0 for the preferred route, higher for alternatives
+     * @return the route text, or an empty string when no such route exists
+     */
+    public static String text(int score, int dartsLeft, int rank) {
+        if (!inRange(score, dartsLeft, rank)) return "";
+        String text = ROUTE_TEXT[index(score, dartsLeft, rank)];
+        return text == null ? "" : text;
+    }
+
+    /**
+     * Returns a ranked checkout route in packed form: the dart count in the top byte
+     * and each dart, encoded as by {@link Dart}, in the lower bytes, first dart lowest.
+     *
+     * @return the packed route, or 0 when no such route exists
+     */
+    public static int route(int score, int dartsLeft, int rank) {
+        if (!inRange(score, dartsLeft, rank)) return NO_ROUTE;
+        return ROUTES[index(score, dartsLeft, rank)];
+    }
+
+    /** @return true if the score can be checked out with the given darts left */
+    public static boolean isCheckout(int score, int dartsLeft) {
+        return route(score, dartsLeft, 0) != NO_ROUTE;
+    }
+
+    /**
+     * Returns the dart to aim at next: the first dart of the preferred checkout when one
+     * exists, otherwise the first dart of a longer route that sets one up, otherwise T20.
+     *
+     * @param score the remaining score
+     * @param dartsLeft darts left in the turn (1 to 3)
+     * @return the encoded {@link Dart} to aim at
+     */
+    public static int aimFor(int score, int dartsLeft) {
+        for (int darts = Math.max(dartsLeft, 1); darts <= MAX_DARTS; darts++) {
+            int route = route(score, darts, 0);
+            if (route != NO_ROUTE) return routeDart(route, 0);
+        }
+        return TREBLE_20;
+    }
+
+    /** @return number of darts in a packed route */
+    public static int routeLength(int route) {
+        return route >>> 24;
+    }
+
+    /** @return the encoded {@link Dart} at position {@code i} in a packed route */
+    public static int routeDart(int route, int i) {
+        return (route >>> (i * 8)) & 0xFF;
+    }
+
+    private static boolean inRange(int score, int dartsLeft, int rank) {
+        return score >= 2 && score <= MAX_CHECKOUT
+                && dartsLeft >= 1 && dartsLeft <= MAX_DARTS
+                && rank >= 0 && rank < ROUTES_PER_STATE;
+    }
+
+    private static int index(int score, int dartsLeft, int rank) {
+        return ((score * MAX_DARTS) + (dartsLeft - 1)) * ROUTES_PER_STATE + rank;
+    }
+
+    // ---------------------------------------------------------------------
+    // Route generation
+    // ---------------------------------------------------------------------
+
+    /** Trebles from the top of the board, then singles, then the bulls, then doubles. */
+    private static int[] buildSetupDarts() {
+        int[] darts = new int[62];
+        int n = 0;
+        for (int s = 20; s >= 1; s--) darts[n++] = Dart.of(s, 3);
+        for (int s = 20; s >= 1; s--) darts[n++] = Dart.of(s, 1);
+        darts[n++] = Dart.OUTER_BULL;
+        darts[n++] = Dart.BULL;
+        for (int s = 20; s >= 1; s--) darts[n++] = Dart.of(s, 2);
+        return darts;
+    }
+
+    /** Lower is better. Singles are cheapest, then trebles from the top of the board. */
+    private static int setupCost(int dart) {
+        int s = Dart.segment(dart);
+        if (s == 25) return Dart.multiplier(dart) == 2 ? 30 : 25;
+        return switch (Dart.multiplier(dart)) {
+            case 1 -> 2;
+            case 3 -> 3 + 20 - s;
+            default -> 40;
+        };
+    }
+
+    private static int doubleCost(int segment) {
+        for (int i = 0; i < DOUBLE_PREFERENCE.length; i++) {
+            if (DOUBLE_PREFERENCE[i] == segment) return i * 4;
+        }
+        return Integer.MAX_VALUE;
+    }
+
+    /**
+     * Enumerates every 1, 2 and 3 dart finish and keeps the cheapest routes per state.
+     * Fewer darts always wins; otherwise the finishing double and setup darts are weighed.
+     * Alternatives are required to finish on a different double from the routes above them.
+     */
+    private static void solve() {
+        int[] costs = new int[ROUTES.length];
+        Arrays.fill(costs, Integer.MAX_VALUE);
+
+        for (int d : DOUBLE_PREFERENCE) {
+            int finish = Dart.of(d, 2);
+            int finishCost = doubleCost(d);
+
+            offer(costs, Dart.score(finish), 1, finishCost, pack(1, finish, 0, 0));
+
+            for (int a : SETUP_DARTS) {
+                int twoDart = Dart.score(a) + Dart.score(finish);
+                offer(costs, twoDart, 2, 1000 + finishCost + setupCost(a), pack(2, a, finish, 0));
+
+                for (int b : SETUP_DARTS) {
+                    int threeDart = twoDart + Dart.score(b);
+                    int cost = 2000 + finishCost + setupCost(a) + setupCost(b);
+                    offer(costs, threeDart, 3, cost, pack(3, a, b, finish));
+                }
+            }
+        }
+
+        for (int i = 0; i < ROUTES.length; i++) {
+            if (ROUTES[i] != NO_ROUTE) ROUTE_TEXT[i] = describe(ROUTES[i]);
+        }
+    }
+
+    private static int pack(int length, int first, int second, int third) {
+        return (length << 24) | (third << 16) | (second << 8) | first;
+    }
+
+    /** Offers a route to every state with at least as many darts left as it uses. */
+    private static void offer(int[] costs, int score, int length, int cost, int route) {
+        if (score > MAX_CHECKOUT) return;
+        for (int dartsLeft = length; dartsLeft <= MAX_DARTS; dartsLeft++) {
+            insert(costs, index(score, dartsLeft, 0), cost, route);
+        }
+    }
+
+    private static void insert(int[] costs, int base, int cost, int route) {
+        int finish = Dart.segment(routeDart(route, routeLength(route) - 1));
+
+        for (int rank = 0; rank < ROUTES_PER_STATE; rank++) {
+            int slot = base + rank;
+            if (ROUTES[slot] == NO_ROUTE) {
+                ROUTES[slot] = route;
+                costs[slot] = cost;
+                return;
+            }
+            int existingFinish = Dart.segment(routeDart(ROUTES[slot], routeLength(ROUTES[slot]) - 1));
+            if (cost < costs[slot]) {
+                if (existingFinish == finish) {
+                    // Replace the weaker route on the same double in place.
+                    ROUTES[slot] = route;
+                    costs[slot] = cost;
+                    return;
+                }
+                int carryRoute = ROUTES[slot];
+                int carryCost = costs[slot];
+                ROUTES[slot] = route;
+                costs[slot] = cost;
+                shiftDown(costs, base, rank + 1, carryCost, carryRoute, finish);
+                return;
+            }
+            if (existingFinish == finish) return;
+        }
+    }
+
+    /** Pushes a displaced route down, dropping any later route on the new route's double. */
+    private static void shiftDown(int[] costs, int base, int from, int cost, int route, int newFinish) {
+        for (int rank = from; rank < ROUTES_PER_STATE; rank++) {
+            int slot = base + rank;
+            int existing = ROUTES[slot];
+            if (existing == NO_ROUTE) {
+                ROUTES[slot] = route;
+                costs[slot] = cost;
+                return;
+            }
+            if (Dart.segment(routeDart(existing, routeLength(existing) - 1)) == newFinish) {
+                ROUTES[slot] = route;
+                costs[slot] = cost;
+                return;
+            }
+            ROUTES[slot] = route;
+            int nextCost = costs[slot];
+            costs[slot] = cost;
+            route = existing;
+            cost = nextCost;
+        }
+    }
+
+    private static String describe(int route) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < routeLength(route); i++) {
+            if (i > 0) sb.append(' ');
+            sb.append(Dart.name(routeDart(route, i)));
+        }
+        return sb.toString();
+    }
+}
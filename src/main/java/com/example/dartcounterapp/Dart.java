@@ -0,0 +1,146 @@
+package com.example.dartcounterapp;
+
+/**
+ * Encodes a single dart as a small int holding its segment and multiplier.
+ * The low five bits are the segment (0 to 20, or 25 for the bull) and the next two
+ * bits the multiplier (0 for a miss, otherwise 1 to 3), so every dart fits in a byte.
+ * All methods are static and allocation-free.
+ */
+public final class Dart {
+
+    /** Returned by {@link #parse(CharSequence)} when the input is not a valid dart. */
+    public static final int INVALID = -1;
+
+    /** A dart that scored nothing. */
+    public static final int MISS = 0;
+
+    /** Outer bull (25). */
+    public static final int OUTER_BULL = of(25, 1);
+
+    /** Inner bull (50), which counts as a double. */
+    public static final int BULL = of(25, 2);
+
+    /** Size of a table indexed by encoded dart. */
+    public static final int CODE_LIMIT = 128;
+
+    private static final String[] NAMES = new String[CODE_LIMIT];
+
+    static {
+        NAMES[MISS] = "Miss";
+        NAMES[OUTER_BULL] = "25";
+        NAMES[BULL] = "Bull";
+        for (int s = 1; s <= 20; s++) {
+            NAMES[of(s, 1)] = String.valueOf(s);
+            NAMES[of(s, 2)] = "D" + s;
+            NAMES[of(s, 3)] = "T" + s;
+        }
+    }
+
+    private Dart() { }
+
+    /** Encodes a segment and multiplier without validating them. */
+    public static int of(int segment, int multiplier) {
+        return (multiplier << 5) | segment;
+    }
+
+    /** @return the segment hit (0 for a miss, 25 for either bull) */
+    public static int segment(int dart) { return dart & 0x1F; }
+
+    /** @return the multiplier (0 for a miss, otherwise 1 to 3) */
+    public static int multiplier(int dart) { return (dart >>> 5) & 0x3; }
+
+    /** @return the points scored by the dart */
+    public static int score(int dart) { return segment(dart) * multiplier(dart); }
+
+    /** @return true if the dart is a double, including the inner bull */
+    public static boolean isDouble(int dart) { return multiplier(dart) == 2; }
+
+    /** @return true if the value is a valid encoded dart */
+    public static boolean isValid(int dart) {
+        return dart >= 0 && dart < CODE_LIMIT && NAMES[dart] != null;
+    }
+
+    /** @return the display name of an encoded dart (e.g. "T20", "D16", "Bull") */
+    public static String name(int dart) {
+        return isValid(dart) ? NAMES[dart] : "?";
+    }
+
+    /**
+     * Parses a dart entry in a single pass without allocating.
+     * Accepts "S20"/"20", "D20", "T20", "25"/"S25"/"SB"/"OB" for the outer bull,
+     * "50"/"D25"/"BULL"/"DB"/"IB" for the inner bull and "MISS"/"M"/"0" for a miss.
+     * Case and surrounding whitespace are ignored.
+     *
+     * @param input the text entered for one dart
+     * @return the encoded dart, or {@link #INVALID}
+     */
+    public static int parse(CharSequence input) {
+        if (input == null) return INVALID;
+        return parse(input, 0, input.length());
+    }
+
+    /**
+     * Parses the dart entry between {@code start} and {@code end} of the input, as {@link #parse(CharSequence)}.
+     *
+     * @return the encoded dart, or {@link #INVALID}
+     */
+    public static int parse(CharSequence input, int start, int end) {
+        while (start < end && Character.isWhitespace(input.charAt(start))) start++;
+        while (end > start && Character.isWhitespace(input.charAt(end - 1))) end--;
+        if (start == end) return INVALID;
+
+        int lettersEnd = start;
+        while (lettersEnd < end && isLetter(input.charAt(lettersEnd))) lettersEnd++;
+
+        int number = 0;
+        int digits = 0;
+        for (int i = lettersEnd; i < end; i++) {
+            char c = input.charAt(i);
+            if (c < '0' || c > '9' || ++digits > 2) return INVALID;
+            number = number * 10 + (c - '0');
+        }
+
+        int letters = lettersEnd - start;
+        if (letters == 0) return plainNumber(number);
+
+        if (digits == 0) return keyword(input, start, lettersEnd);
+        if (letters != 1) return INVALID;
+
+        return switch (input.charAt(start) | 0x20) {
+            case 's' -> number >= 1 && number <= 20 || number == 25 ? of(number, 1) : INVALID;
+            case 'd' -> number >= 1 && number <= 20 || number == 25 ? of(number, 2) : INVALID;
+            case 't' -> number >= 1 && number <= 20 ? of(number, 3) : INVALID;
+            default -> INVALID;
+        };
+    }
+
+    private static int plainNumber(int number) {
+        if (number == 0) return MISS;
+        if (number <= 20) return of(number, 1);
+        if (number == 25) return OUTER_BULL;
+        if (number == 50) return BULL;
+        return INVALID;
+    }
+
+    private static int keyword(CharSequence input, int from, int to) {
+        if (matches(input, from, to, "miss") || matches(input, from, to, "m")) return MISS;
+        if (matches(input, from, to, "bull") || matches(input, from, to, "db")
+                || matches(input, from, to, "ib")) return BULL;
+        if (matches(input, from, to, "sb") || matches(input, from, to, "ob")) return OUTER_BULL;
+        return INVALID;
+    }
+
+    private static boolean isLetter(char c) {
+        int lower = c | 0x20;
+        return lower >= 'a' && lower <= 'z';
+    }
+
+    /** Case-insensitive comparison of an ASCII letter run against a lower-case keyword. */
+    private static boolean matches(CharSequence input, int from, int to, String keyword) {
+        if (to - from != keyword.length()) return false;
+        for (int i = 0; i < keyword.length(); i++) {
+            if ((input.charAt(from + i) | 0x20) != keyword.charAt(i)) return false;
+        }
+        return true;
+    }
+}
@@ -1,35 +1,161 @@
 package com.example.dartcounterapp;
 
 import javafx.application.Application;
+import javafx.application.Platform;
 import javafx.fxml.FXMLLoader;
+import javafx.scene.Parent;
 import javafx.scene.Scene;
 import javafx.stage.Stage;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
 /**
  * Main JavaFX application entry point for the Dart Counter app.
  * Loads the scoreboard view, initializes the game, and launches the UI.
+ * Any match left unfinished by a previous run is resumed before the UI shows, from its latest
+ * end-of-leg snapshot plus the throws journalled since; a finished one is cleared for a new match.
+ *
+ * <p>Each program argument names one side; teammates are joined with "&amp;", for example
+ * {@code "Ann&Bob" "Cat&Dan"}. With no arguments two players face each other.</p>
+ *
+ * <p>The scoreboard is built in code by {@link ScoreboardScene} while the game is resumed and
+ * the checkout tables are built on another thread. {@code -Ddartcounter.fxml=true} loads
+ * {@code scoreboard-view.fxml} instead. {@code -Ddartcounter.home} moves the journal and
+ * snapshot out of {@code ~/.dartcounter}. {@code -Ddartcounter.feedPort} publishes the match to
+ * spectators through a {@link SpectatorFeed}. {@code -Ddartcounter.botAverage=60} is practice
+ * mode: a {@link Bot} averaging about that many points throws for the second player.
+ * {@code -Ddartcounter.latencySummary=true} prints the scoreboard's latency histograms on exit.</p>
  */
 public class DartCounterApp extends Application {
 
+    /** System property that makes the app report its first frame and exit, for startup benchmarks. */
+    public static final String STARTUP_PROBE_PROPERTY = "dartcounter.startupProbe";
+
+    /** Prefix of the line the startup probe prints, followed by the frame's epoch time in microseconds. */
+    public static final String FIRST_FRAME = "FIRST_FRAME ";
+
+    private static final Path DATA_DIR = Path.of(System.getProperty("dartcounter.home",
+            Path.of(System.getProperty("user.home"), ".dartcounter").toString()));
+    private static final Path JOURNAL_PATH = DATA_DIR.resolve("match.journal");
+    private static final Path SNAPSHOT_PATH = DATA_DIR.resolve("match.snapshot");
+
+    private ThrowJournal journal;
+    private MatchSnapshots snapshots;
+    private CheckoutAdvisor checkoutAdvisor;
+    private SpectatorFeed spectatorFeed;
+    private Bot bot;
+    private ScoreboardController controller;
+
     @Override
     public void start(Stage stage) throws Exception {
-        FXMLLoader loader = new FXMLLoader(getClass().getResource("scoreboard-view.fxml"));
-        Scene scene = new Scene(loader.load(), 600, 400);
-
-        Player player1 = new Player("Player 1", 501);
-        Player player2 = new Player("Player 2", 501);
-        Game game = new Game(player1, player2, 501, 3, 3);
+        List<String> sides = getParameters().getRaw();
+        CompletableFuture<Game> loading = CompletableFuture.supplyAsync(() -> loadGame(sides));
 
-        ScoreboardController controller = loader.getController();
-        controller.setGame(game);
+        Parent root;
+        if (Boolean.getBoolean("dartcounter.fxml")) {
+            FXMLLoader loader = new FXMLLoader(getClass().getResource("scoreboard-view.fxml"));
+            root = loader.load();
+            controller = loader.getController();
+        } else {
+            controller = new ScoreboardController();
+            root = ScoreboardScene.build(controller);
+        }
+        Scene scene = new Scene(root, 600, 400);
 
         stage.setTitle("Dart Counter");
         stage.setScene(scene);
+        Game game = loading.join();
+        controller.setGame(game);
+        if (bot != null) controller.setBot(bot, game.getPlayer2());
+        if (Boolean.getBoolean(STARTUP_PROBE_PROPERTY)) reportFirstFrame(scene);
+
         stage.setFullScreen(true);
         stage.show();
     }
 
+    /** Prints the wall-clock time of the scene's first pulse to stdout, then exits the app. */
+    private static void reportFirstFrame(Scene scene) {
+        Runnable[] firstPulse = new Runnable[1];
+        firstPulse[0] = () -> {
+            scene.removePostLayoutPulseListener(firstPulse[0]);
+            // Runs once the pulse has been handed to the renderer.
+            Platform.runLater(() -> {
+                System.out.println(FIRST_FRAME + ChronoUnit.MICROS.between(Instant.EPOCH, Instant.now()));
+                Platform.exit();
+            });
+        };
+        scene.addPostLayoutPulseListener(firstPulse[0]);
+    }
+
+    /** Resumes the match from disk and builds the checkout tables, off the FX thread. */
+    private Game loadGame(List<String> sides) {
+        try {
+            CheckoutTable.isCheckout(CheckoutTable.MAX_CHECKOUT, 3);
+
+            Game game = newGame(sides);
+            journal = ThrowJournal.open(JOURNAL_PATH, game);
+            snapshots = MatchSnapshots.open(SNAPSHOT_PATH, journal);
+            snapshots.resume(game);
+            if (game.getMatchWinner() != null) {
+                // The journalled match was won last time; this run plays the next one.
+                journal.restart();
+                game = newGame(sides);
+            }
+            game.addThrowListener(journal);
+            game.addThrowListener(snapshots);
+
+            checkoutAdvisor = new CheckoutAdvisor();
+            game.setCheckoutAdvisor(checkoutAdvisor);
+
+            Integer feedPort = Integer.getInteger("dartcounter.feedPort");
+            if (feedPort != null) spectatorFeed = new SpectatorFeed(game, feedPort);
+
+            String botAverage = System.getProperty("dartcounter.botAverage");
+            if (botAverage != null) bot = Bot.forAverage(Double.parseDouble(botAverage), System.nanoTime());
+            return game;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not resume the match", e);
+        }
+    }
+
+    /** Creates a match of 501, first to 3 legs and 3 sets, that keeps its throws for undo. */
+    private static Game newGame(List<String> sides) {
+        Game game = new Game(teams(sides, 501), 501, 3, 3);
+        game.enableHistory();
+        return game;
+    }
+
+    /** Builds the sides from the program arguments, or two single players if there are none. */
+    private static Player[][] teams(List<String> args, int targetScore) {
+        if (args.isEmpty()) args = List.of("Player 1", "Player 2");
+        Player[][] teams = new Player[args.size()][];
+        for (int t = 0; t < teams.length; t++) {
+            String[] names = args.get(t).split("&");
+            teams[t] = new Player[names.length];
+            for (int m = 0; m < names.length; m++) teams[t][m] = new Player(names[m].trim(), targetScore);
+        }
+        return teams;
+    }
+
+    @Override
+    public void stop() throws Exception {
+        if (controller != null && Boolean.getBoolean("dartcounter.latencySummary")) {
+            System.err.print("Scoreboard latency\n" + controller.getLatencySummary());
+        }
+        if (bot != null) bot.close();
+        if (spectatorFeed != null) spectatorFeed.close();
+        if (checkoutAdvisor != null) checkoutAdvisor.close();
+        if (snapshots != null) snapshots.close();
+        if (journal != null) journal.close();
+    }
+
     public static void main(String[] args) {
-        launch();
+        launch(args);
     }
 }
\ No newline at end of file
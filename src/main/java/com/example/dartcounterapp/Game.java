@@ -1,303 +1,481 @@
 package com.example.dartcounterapp;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
 
 /**
- * Represents a darts game containing two players.
+ * Represents a darts game between two or more players, or teams of players sharing a score.
  * Handles scoring, turn logic, leg/set transitions, and checkout suggestions.
+ *
+ * <p>Players throw in a fixed ring order that interleaves the sides, so teammates
+ * alternate with their opponents. Each side's scores, legs and sets are held in a
+ * {@link ScoreSheet}; moving to the next thrower, the next leg starter or the next set
+ * starter is an index step around the ring.</p>
+ *
+ * <p>Once {@link #enableHistory} is called, every accepted throw is kept in a {@link MatchHistory},
+ * so throws can be taken back with {@link #undo} and put back with {@link #redo}, across turns,
+ * legs and sets. Headless games keep no history and pay nothing for it.</p>
+ *
+ * <p>Once the match is won, further throws are rejected with {@link ThrowResult#MATCH_OVER}.</p>
+ *
+ * <p>Legs are played to a {@link Rules} set: 501 straight in, double out unless given
+ * otherwise. Each dart is resolved by one lookup in the rules' transition table.</p>
  */
 public class Game {
 
-    private final Player player1;
-    private final Player player2;
+    private final Player[] players;
+    private final int[] sideOf;
+    private final Player[][] sides;
+    private final String[] sideNames;
+    private final ScoreSheet sheet;
+
+    private int turn;
+    private int side;
     private Player currentPlayer;
-    private Player setStarter;
-    private Player startingPlayer;
+    private int setStarter;
+    private int legStarter;
 
+    private final Rules rules;
     private final int targetScore;
     private final int legsPerSet;
     private final int setsToWin;
 
     private int dartsThrown = 0;
+    private int lastDart = Dart.INVALID;
+    private ThrowListener[] throwListeners = new ThrowListener[0];
+    private int legsPlayed = 0;
+    private Player matchWinner;
+    private CheckoutAdvisor checkoutAdvisor;
 
-    private static final int[] IMPOSSIBLE_THREE_DART_SCORES = {
-            179, 178, 176, 175, 173, 172, 169, 168, 166, 165, 163, 162
-    };
-
-    private static final Map<Integer, String> CHECKOUTS = new HashMap<>();
-
-    static {
-        CHECKOUTS.put(170, "T20 T20 Bull");
-        CHECKOUTS.put(167, "T20 T19 Bull");
-        CHECKOUTS.put(164, "T20 T18 Bull");
-        CHECKOUTS.put(161, "T20 T17 Bull");
-        CHECKOUTS.put(160, "T20 T20 D20");
-        CHECKOUTS.put(158, "T20 T20 D19");
-        CHECKOUTS.put(157, "T20 T19 D20");
-        CHECKOUTS.put(156, "T20 T20 D18");
-        CHECKOUTS.put(155, "T20 T19 D19");
-        CHECKOUTS.put(154, "T20 T18 D20");
-        CHECKOUTS.put(153, "T20 T19 D18");
-        CHECKOUTS.put(152, "T20 T20 D16");
-        CHECKOUTS.put(151, "T20 T17 D20");
-        CHECKOUTS.put(150, "T20 T18 D18");
-        CHECKOUTS.put(149, "T20 T19 D16");
-        CHECKOUTS.put(148, "T20 T16 D20");
-        CHECKOUTS.put(147, "T20 T17 D18");
-        CHECKOUTS.put(146, "T20 T18 D16");
-        CHECKOUTS.put(145, "T20 T15 D20");
-        CHECKOUTS.put(144, "T20 T20 D12");
-        CHECKOUTS.put(143, "T20 T17 D16");
-        CHECKOUTS.put(142, "T20 T14 D20");
-        CHECKOUTS.put(141, "T20 T19 D12");
-        CHECKOUTS.put(140, "T20 T16 D16");
-        CHECKOUTS.put(139, "T20 T13 D20");
-        CHECKOUTS.put(138, "T20 T18 D12");
-        CHECKOUTS.put(137, "T19 T16 D16");
-        CHECKOUTS.put(136, "T20 T20 D8");
-        CHECKOUTS.put(135, "Bull T15 D20");
-        CHECKOUTS.put(134, "T20 T14 D16");
-        CHECKOUTS.put(133, "T20 T19 D8");
-        CHECKOUTS.put(132, "Bull Bull D16");
-        CHECKOUTS.put(131, "T20 T13 D16");
-        CHECKOUTS.put(130, "T20 T18 D8");
-        CHECKOUTS.put(129, "T19 T16 D12");
-        CHECKOUTS.put(128, "T18 T14 D16");
-        CHECKOUTS.put(127, "T20 T17 D8");
-        CHECKOUTS.put(126, "T19 T19 D6");
-        CHECKOUTS.put(125, "Bull T15 D20");
-        CHECKOUTS.put(124, "T20 T16 D8");
-        CHECKOUTS.put(123, "T19 T10 D18");
-        CHECKOUTS.put(122, "T18 T18 D7");
-        CHECKOUTS.put(121, "T20 T11 D14");
-        CHECKOUTS.put(120, "T20 20 D20");
-        CHECKOUTS.put(119, "T19 10 D16");
-        CHECKOUTS.put(118, "T20 18 D20");
-        CHECKOUTS.put(117, "T20 17 D20");
-        CHECKOUTS.put(116, "T20 16 D20");
-        CHECKOUTS.put(115, "T20 15 D20");
-        CHECKOUTS.put(114, "T20 14 D20");
-        CHECKOUTS.put(113, "T20 13 D20");
-        CHECKOUTS.put(112, "T20 12 D20");
-        CHECKOUTS.put(111, "T20 11 D20");
-        CHECKOUTS.put(110, "T20 10 D20");
-        CHECKOUTS.put(109, "T20 9 D20");
-        CHECKOUTS.put(108, "T20 8 D20");
-        CHECKOUTS.put(107, "T19 10 D20");
-        CHECKOUTS.put(106, "T20 6 D20");
-        CHECKOUTS.put(105, "T20 13 D16");
-        CHECKOUTS.put(104, "T18 18 D16");
-        CHECKOUTS.put(103, "T20 3 D20");
-        CHECKOUTS.put(102, "T20 10 D16");
-        CHECKOUTS.put(101, "T17 10 D20");
-        CHECKOUTS.put(100, "T20 D20");
-        CHECKOUTS.put(99, "T19 10 D16");
-        CHECKOUTS.put(98, "T20 D19");
-        CHECKOUTS.put(97, "T19 D20");
-        CHECKOUTS.put(96, "T20 D18");
-        CHECKOUTS.put(95, "T19 D19");
-        CHECKOUTS.put(94, "T18 D20");
-        CHECKOUTS.put(93, "T19 D18");
-        CHECKOUTS.put(92, "T20 D16");
-        CHECKOUTS.put(91, "T17 D20");
-        CHECKOUTS.put(90, "T18 D18");
-        CHECKOUTS.put(89, "T19 D16");
-        CHECKOUTS.put(88, "T20 D14");
-        CHECKOUTS.put(87, "T17 D18");
-        CHECKOUTS.put(86, "T18 D16");
-        CHECKOUTS.put(85, "T15 D20");
-        CHECKOUTS.put(84, "T20 D12");
-        CHECKOUTS.put(83, "T17 D16");
-        CHECKOUTS.put(82, "Bull D16");
-        CHECKOUTS.put(81, "T19 D12");
-        CHECKOUTS.put(80, "T20 D10");
-        CHECKOUTS.put(79, "T13 D20");
-        CHECKOUTS.put(78, "T18 D12");
-        CHECKOUTS.put(77, "T19 D10");
-        CHECKOUTS.put(76, "T20 D8");
-        CHECKOUTS.put(75, "T17 D12");
-        CHECKOUTS.put(74, "T14 D16");
-        CHECKOUTS.put(73, "T19 D8");
-        CHECKOUTS.put(72, "T16 D12");
-        CHECKOUTS.put(71, "T13 D16");
-        CHECKOUTS.put(70, "T18 D8");
-        CHECKOUTS.put(69, "T19 D6");
-        CHECKOUTS.put(68, "T20 D4");
-        CHECKOUTS.put(67, "T17 D8");
-        CHECKOUTS.put(66, "T10 D18");
-        CHECKOUTS.put(65, "T19 D4");
-        CHECKOUTS.put(64, "T16 D8");
-        CHECKOUTS.put(63, "T13 D12");
-        CHECKOUTS.put(62, "T10 D16");
-        CHECKOUTS.put(61, "T15 D8");
-        CHECKOUTS.put(60, "20 D20");
-        CHECKOUTS.put(59, "19 D20");
-        CHECKOUTS.put(58, "18 D20");
-        CHECKOUTS.put(57, "17 D20");
-        CHECKOUTS.put(56, "16 D20");
-        CHECKOUTS.put(55, "15 D20");
-        CHECKOUTS.put(54, "14 D20");
-        CHECKOUTS.put(53, "13 D20");
-        CHECKOUTS.put(52, "12 D20");
-        CHECKOUTS.put(51, "11 D20");
-        CHECKOUTS.put(50, "D25");
-        CHECKOUTS.put(49, "9 D20");
-        CHECKOUTS.put(48, "16 D16");
-        CHECKOUTS.put(47, "15 D16");
-        CHECKOUTS.put(46, "6 D20");
-        CHECKOUTS.put(45, "13 D16");
-        CHECKOUTS.put(44, "12 D16");
-        CHECKOUTS.put(43, "3 D20");
-        CHECKOUTS.put(42, "10 D16");
-        CHECKOUTS.put(41, "9 D16");
-        CHECKOUTS.put(40, "D20");
-        CHECKOUTS.put(39, "7 D16");
-        CHECKOUTS.put(38, "D19");
-        CHECKOUTS.put(37, "5 D16");
-        CHECKOUTS.put(36, "D18");
-        CHECKOUTS.put(35, "3 D16");
-        CHECKOUTS.put(34, "D17");
-        CHECKOUTS.put(33, "1 D16");
-        CHECKOUTS.put(32, "D16");
-        CHECKOUTS.put(31, "15 D8");
-        CHECKOUTS.put(30, "D15");
-        CHECKOUTS.put(29, "13 D8");
-        CHECKOUTS.put(28, "D14");
-        CHECKOUTS.put(27, "11 D8");
-        CHECKOUTS.put(26, "D13");
-        CHECKOUTS.put(25, "9 D8");
-        CHECKOUTS.put(24, "D12");
-        CHECKOUTS.put(23, "7 D8");
-        CHECKOUTS.put(22, "D11");
-        CHECKOUTS.put(21, "5 D8");
-        CHECKOUTS.put(20, "D10");
-        CHECKOUTS.put(19, "3 D8");
-        CHECKOUTS.put(18, "D9");
-        CHECKOUTS.put(17, "1 D8");
-        CHECKOUTS.put(16, "D8");
-        CHECKOUTS.put(15, "7 D4");
-        CHECKOUTS.put(14, "D7");
-        CHECKOUTS.put(13, "5 D4");
-        CHECKOUTS.put(12, "D6");
-        CHECKOUTS.put(11, "3 D4");
-        CHECKOUTS.put(10, "D5");
-        CHECKOUTS.put(9, "1 D4");
-        CHECKOUTS.put(8, "D4");
-        CHECKOUTS.put(7, "3 D2");
-        CHECKOUTS.put(6, "D3");
-        CHECKOUTS.put(5, "1 D2");
-        CHECKOUTS.put(4, "D2");
-        CHECKOUTS.put(3, "1 D1");
-        CHECKOUTS.put(2, "D1");
-    }
+    private static final ThrowListener[] NO_LISTENERS = new ThrowListener[0];
+    private MatchHistory history;
+    private boolean replaying;
 
     public Game(Player p1, Player p2, int targetScore, int legsPerSet, int setsToWin) {
-        this.player1 = p1;
-        this.player2 = p2;
-        this.currentPlayer = p1;
-        this.startingPlayer = p1;
-        this.setStarter = p1;
-        this.targetScore = targetScore;
+        this(new Player[][] {{p1}, {p2}}, targetScore, legsPerSet, setsToWin);
+    }
+
+    /**
+     * Creates a game in which every player plays for themselves, throwing in the given order.
+     *
+     * @param players the players, at least one
+     */
+    public Game(Player[] players, int targetScore, int legsPerSet, int setsToWin) {
+        this(singles(players), targetScore, legsPerSet, setsToWin);
+    }
+
+    /**
+     * Creates a team game. Teams share a score and throw in turn, and teammates alternate
+     * in the order given: team 0's first player, team 1's first player, ..., then each
+     * team's second player, and so on.
+     *
+     * @param teams the teams, each with the same number of players
+     * @throws IllegalArgumentException if there are no teams or the teams differ in size
+     */
+    public Game(Player[][] teams, int targetScore, int legsPerSet, int setsToWin) {
+        this(teams, Rules.doubleOut(targetScore), legsPerSet, setsToWin);
+    }
+
+    /**
+     * Creates a team game played to the given rules, such as 301 double in, double out.
+     * The players' scores are reset to the rules' starting score.
+     *
+     * @throws IllegalArgumentException if there are no teams or the teams differ in size
+     */
+    public Game(Player[][] teams, Rules rules, int legsPerSet, int setsToWin) {
+        if (teams.length == 0 || teams[0].length == 0) {
+            throw new IllegalArgumentException("A game needs at least one player");
+        }
+        int teamSize = teams[0].length;
+        this.sides = new Player[teams.length][];
+        this.sideNames = new String[teams.length];
+        this.players = new Player[teams.length * teamSize];
+        this.sideOf = new int[players.length];
+        this.sheet = new ScoreSheet(teams.length, rules.getStartScore());
+
+        for (int t = 0; t < teams.length; t++) {
+            if (teams[t].length != teamSize) {
+                throw new IllegalArgumentException("Teams must have the same number of players");
+            }
+            sides[t] = teams[t].clone();
+            StringBuilder name = new StringBuilder(teams[t][0].getName());
+            for (int m = 1; m < teamSize; m++) name.append(" & ").append(teams[t][m].getName());
+            sideNames[t] = name.toString();
+        }
+        for (int m = 0; m < teamSize; m++) {
+            for (int t = 0; t < teams.length; t++) {
+                int seat = m * teams.length + t;
+                players[seat] = teams[t][m];
+                sideOf[seat] = t;
+                players[seat].seat(sheet, t, seat);
+            }
+        }
+
+        this.rules = rules;
+        this.targetScore = rules.getStartScore();
         this.legsPerSet = legsPerSet;
         this.setsToWin = setsToWin;
-        this.player1.startTurn();
+        this.currentPlayer = players[0];
+    }
+
+    private static Player[][] singles(Player[] players) {
+        Player[][] teams = new Player[players.length][];
+        for (int i = 0; i < players.length; i++) teams[i] = new Player[] {players[i]};
+        return teams;
     }
 
-    public Player getPlayer1() { return player1; }
-    public Player getPlayer2() { return player2; }
+    /** Returns the first player in the throwing order. */
+    public Player getPlayer1() { return players[0]; }
+
+    /** Returns the second player in the throwing order (the first player's opponent in a two-sided game). */
+    public Player getPlayer2() { return players[1 % players.length]; }
+
     public Player getCurrentPlayer() { return currentPlayer; }
     public int getLegsPerSet() { return legsPerSet; }
     public int getSetsToWin() { return setsToWin; }
+    public int getTargetScore() { return targetScore; }
+    public Rules getRules() { return rules; }
+
+    /** Returns the number of players in the throwing order. */
+    public int getPlayerCount() { return players.length; }
+
+    /** Returns the player at the given position in the throwing order. */
+    public Player getPlayer(int seat) { return players[seat]; }
+
+    /** Returns the position of a player in the throwing order, or -1 if they are not in this game. */
+    public int indexOf(Player player) {
+        int seat = player.seat();
+        return seat < players.length && players[seat] == player ? seat : -1;
+    }
+
+    /** Returns the position of the current player in the throwing order. */
+    public int getCurrentIndex() { return turn; }
 
-    /** Returns checkout suggestion text for the given remaining score. */
+    /** Returns the number of sides (players, or teams) in the game. */
+    public int getSideCount() { return sides.length; }
+
+    /** Returns the side whose turn it is. */
+    public int getCurrentSide() { return side; }
+
+    /** Returns the display name of a side: the player's name, or the team members joined by "&amp;". */
+    public String getSideName(int side) { return sideNames[side]; }
+
+    /** Returns a copy of the players on a side, in their throwing order. */
+    public Player[] getSidePlayers(int side) { return sides[side].clone(); }
+
+    /** Returns the number of legs completed so far in the match. */
+    public int getLegsPlayed() { return legsPlayed; }
+
+    /** Returns the winner of the match, or null while it is still in progress. */
+    public Player getMatchWinner() { return matchWinner; }
+
+    /** Returns darts thrown so far in the current per-dart turn. */
+    public int getDartsThrown() { return dartsThrown; }
+
+    /** Registers a listener that is told about every accepted throw from now on. */
+    public void addThrowListener(ThrowListener listener) {
+        throwListeners = Arrays.copyOf(throwListeners, throwListeners.length + 1);
+        throwListeners[throwListeners.length - 1] = listener;
+    }
+
+    /** Returns the last dart entered in per-dart mode, encoded by {@link Dart}, or {@link Dart#INVALID}. */
+    public int getLastDart() { return lastDart; }
+
+    /** Returns true if the last dart entered was a double (including the bull). */
+    public boolean isLastDartDouble() { return lastDart != Dart.INVALID && Dart.isDouble(lastDart); }
+
+    /** Returns checkout suggestion text for the given remaining score with three darts in hand. */
     public String getCheckoutSuggestion(int score) {
-        if (score > 170 || score < 2) return "";
-        if (score == 169 || score == 168 || score == 166 || score == 165 ||
-                score == 163 || score == 162 || score == 159) return "";
-        return CHECKOUTS.getOrDefault(score, "");
+        return getCheckoutSuggestion(score, 3);
+    }
+
+    /**
+     * Returns checkout suggestion text for the given remaining score and darts left: the
+     * {@link CheckoutTable} route when the leg ends on a double, otherwise the rules' own route.
+     */
+    public String getCheckoutSuggestion(int score, int dartsLeft) {
+        if (!rules.usesCheckoutTable(score)) return rules.route(score, dartsLeft);
+        return CheckoutTable.suggestion(score, dartsLeft);
+    }
+
+    /**
+     * Uses the advisor's per-player routes for {@link #getCheckoutSuggestion(Player)}, and
+     * registers it to follow every throw. Pass null to go back to the fixed routes.
+     */
+    public void setCheckoutAdvisor(CheckoutAdvisor advisor) {
+        if (advisor != null) {
+            addThrowListener(advisor);
+            for (Player player : players) advisor.refresh(player);
+        }
+        checkoutAdvisor = advisor;
+    }
+
+    /** Returns the preferred checkout for a player, accounting for darts already thrown this turn. */
+    public String getCheckoutSuggestion(Player player) {
+        CheckoutAdvisor advisor = checkoutAdvisor;
+        int score = player.getCurrentScore();
+        if (advisor != null && rules.usesCheckoutTable(score)) return advisor.suggestion(player, score, getDartsLeft(player));
+        return getCheckoutSuggestion(score, getDartsLeft(player));
+    }
+
+    /**
+     * Returns a ranked checkout route for a player (0 = preferred, then alternatives),
+     * or an empty string if there is none.
+     */
+    public String getCheckoutAlternative(Player player, int rank) {
+        int score = player.getCurrentScore();
+        if (!rules.usesCheckoutTable(score)) return rank == 0 ? rules.route(score, getDartsLeft(player)) : "";
+        return CheckoutTable.text(score, getDartsLeft(player), rank);
+    }
+
+    /** Returns the darts the player has left this turn; 3 for the player waiting to throw. */
+    public int getDartsLeft(Player player) {
+        return (player == currentPlayer) ? 3 - dartsThrown : 3;
     }
 
-    /** Parses a dart input (e.g., "s20", "t19", "50") into its numeric value. */
+    /** Parses a dart input (e.g., "s20", "t19", "50") into its numeric value, or -1 if invalid. */
     public int parseDart(String dartInput) {
-        if (dartInput == null || dartInput.isEmpty()) return -1;
-        dartInput = dartInput.trim().toLowerCase();
+        int dart = Dart.parse(dartInput);
+        return dart == Dart.INVALID ? -1 : Dart.score(dart);
+    }
+
+    /**
+     * Keeps every throw from the current state on, so that it can be undone and redone.
+     * Does nothing if the history is already kept.
+     */
+    public void enableHistory() {
+        if (history == null) history = new MatchHistory();
+    }
+
+    /** Returns true if there is a throw to take back. */
+    public boolean canUndo() { return history != null && history.canUndo(); }
+
+    /** Returns true if there is a taken-back throw to put back. */
+    public boolean canRedo() { return history != null && history.canRedo(); }
+
+    /**
+     * Takes back the last throw, restoring scores, turn, legs, sets and statistics to what they
+     * were before it. Undo reaches back to when the history was enabled, or the game was last
+     * restored from a snapshot. Listeners are told through {@link ThrowListener#onUndo}.
+     *
+     * @return false if there is nothing to take back
+     */
+    public boolean undo() {
+        if (!canUndo()) return false;
+        rewindTo(history.position() - 1);
+        for (ThrowListener listener : throwListeners) listener.onUndo(this);
+        return true;
+    }
+
+    /**
+     * Puts back the last throw taken back, exactly as if it were thrown again.
+     *
+     * @return false if there is nothing to put back
+     */
+    public boolean redo() {
+        if (!canRedo()) return false;
+        MatchCodec.apply(history.event(history.position()), this);
+        return true;
+    }
+
+    /**
+     * Returns the {@code i}-th dart of the current per-dart turn, encoded by {@link Dart},
+     * or {@link Dart#INVALID} if it is from before the history began or there is none.
+     */
+    public int getTurnDart(int i) {
+        if (history == null) return Dart.INVALID;
+        int at = history.position() - dartsThrown + i;
+        return at < 0 ? Dart.INVALID : MatchCodec.value(history.event(at));
+    }
 
-        if (dartInput.equals("25")) return 25;
-        if (dartInput.equals("50")) return 50;
-        if (dartInput.length() < 2) return -1;
+    /** Adds a throw to the history, first checkpointing the state it is taken from if it is the first. */
+    private void record(int event) {
+        if (replaying || history == null) return;
+        if (!history.hasCheckpoint()) history.checkpoint(encode());
+        history.record(event);
+    }
 
-        char multiplier = dartInput.charAt(0);
-        int value;
+    /** Rebuilds the state after the first {@code target} throws from the checkpoint before them. */
+    private void rewindTo(int target) {
+        int k = history.checkpointBefore(target);
+        ThrowListener[] listeners = throwListeners;
+        throwListeners = NO_LISTENERS;
+        replaying = true;
         try {
-            value = Integer.parseInt(dartInput.substring(1));
-        } catch (NumberFormatException e) {
-            return -1;
+            MatchCodec.decodeInto(ByteBuffer.wrap(history.checkpointState(k)), this);
+            for (int i = history.checkpointPosition(k); i < target; i++) MatchCodec.apply(history.event(i), this);
+        } finally {
+            replaying = false;
+            throwListeners = listeners;
         }
-        if (value < 1 || value > 20) return -1;
+        history.moveTo(target);
+    }
 
-        return switch (multiplier) {
-            case 's' -> value;
-            case 'd' -> value * 2;
-            case 't' -> value * 3;
-            default -> -1;
-        };
+    private byte[] encode() {
+        ByteBuffer out = ByteBuffer.allocate(MatchCodec.maxSize(this));
+        MatchCodec.encode(this, out);
+        return Arrays.copyOf(out.array(), out.position());
     }
 
     /** Handles scoring when a player wins a leg, set, or match. */
-    private String handleLegOrSetWin(Player winner) {
-        if (winner.getLegsWon() + 1 == legsPerSet) {
-            winner.addSet();
-            player1.resetLegs();
-            player2.resetLegs();
-
-            if (winner.getSetsWon() == setsToWin) {
-                player1.resetForNewLeg(targetScore);
-                player2.resetForNewLeg(targetScore);
+    private ThrowResult handleLegOrSetWin(Player winner) {
+        ThrowResult result = applyLegWin(winner);
+        if (!replaying && history != null) history.checkpoint(encode());
+        for (ThrowListener listener : throwListeners) listener.onLegWon(this, winner);
+        return result;
+    }
+
+    private ThrowResult applyLegWin(Player winner) {
+        legsPlayed++;
+        ScoreSheet s = sheet;
+        int winningSide = side;
+        if (s.legs[winningSide] + 1 == legsPerSet) {
+            s.sets[winningSide]++;
+            s.resetLegs();
+
+            if (s.sets[winningSide] == setsToWin) {
+                matchWinner = winner;
+                startLeg();
                 dartsThrown = 0;
-                return winner.getName() + " wins the MATCH!";
+                return ThrowResult.MATCH;
             }
 
-            setStarter = (setStarter == player1) ? player2 : player1;
-            startingPlayer = setStarter;
-            currentPlayer = startingPlayer;
+            setStarter = next(setStarter);
+            legStarter = setStarter;
+            startLeg();
+            startTurn(legStarter);
+            return ThrowResult.SET;
+        }
+
+        s.legs[winningSide]++;
+        legStarter = next(legStarter);
+        startLeg();
+        startTurn(legStarter);
+        return ThrowResult.LEG;
+    }
 
-            player1.resetForNewLeg(targetScore);
-            player2.resetForNewLeg(targetScore);
-            currentPlayer.startTurn();
+    /** @return an upper bound on the bytes {@link #writeState} writes for the current state */
+    int stateSize() {
+        int size = (sheet.sides() * 5 + 7) * 5;
+        for (Player player : players) size += player.getStats().serializedSize();
+        return size;
+    }
 
-            dartsThrown = 0;
-            return winner.getName() + " wins the SET!";
+    /**
+     * Writes the match state, including every player's statistics, in the {@link MatchCodec}
+     * format. The line-up and format are written by the codec.
+     */
+    void writeState(MatchCodec.Cursor out) {
+        ScoreSheet s = sheet;
+        for (int i = 0; i < s.sides(); i++) {
+            out.putVarint(s.score[i]);
+            out.putVarint(s.turnStart[i]);
+            out.putVarint(s.lastTurn[i]);
+            out.putVarint(s.legs[i]);
+            out.putVarint(s.sets[i]);
         }
+        out.putVarint(turn);
+        out.putVarint(setStarter);
+        out.putVarint(legStarter);
+        out.putVarint(dartsThrown);
+        out.putVarint(lastDart + 1);
+        out.putVarint(legsPlayed);
+        out.putVarint(matchWinner == null ? 0 : matchWinner.seat() + 1);
+        for (Player player : players) player.getStats().writeTo(out);
+    }
 
-        winner.addLeg();
-        player1.resetForNewLeg(targetScore);
-        player2.resetForNewLeg(targetScore);
+    /**
+     * Restores state written by {@link #writeState} into this game, which the codec has
+     * checked has the same line-up and format. The undo history starts again from here.
+     *
+     * @throws IllegalArgumentException if a seat in the state is out of range
+     */
+    void readState(MatchCodec.Cursor in) {
+        if (!replaying && history != null) history.clear();
+        ScoreSheet s = sheet;
+        for (int i = 0; i < s.sides(); i++) {
+            s.score[i] = in.getVarint();
+            s.turnStart[i] = in.getVarint();
+            s.lastTurn[i] = in.getVarint();
+            s.legs[i] = in.getVarint();
+            s.sets[i] = in.getVarint();
+        }
+        turn = seatOf(in.getVarint());
+        side = sideOf[turn];
+        currentPlayer = players[turn];
+        setStarter = seatOf(in.getVarint());
+        legStarter = seatOf(in.getVarint());
+        dartsThrown = in.getVarint();
+        lastDart = in.getVarint() - 1;
+        legsPlayed = in.getVarint();
+        int winner = in.getVarint();
+        matchWinner = winner == 0 ? null : players[seatOf(winner - 1)];
+        for (Player player : players) player.getStats().readFrom(in);
+    }
 
-        startingPlayer = (startingPlayer == player1) ? player2 : player1;
-        currentPlayer = startingPlayer;
-        currentPlayer.startTurn();
+    private int seatOf(int seat) {
+        if (seat < 0 || seat >= players.length) throw new IllegalArgumentException("No seat " + seat);
+        return seat;
+    }
 
-        dartsThrown = 0;
-        return winner.getName() + " wins the LEG!";
+    /** Resets every side's score and every player's leg statistics for a new leg. */
+    private void startLeg() {
+        sheet.resetLeg(targetScore);
+        for (Player player : players) player.getStats().startLeg();
+    }
+
+    /** Returns the position after the given one in the throwing order. */
+    private int next(int seat) {
+        return seat + 1 == players.length ? 0 : seat + 1;
     }
 
     /** Processes a single dart throw input. */
-    public String throwDart(String dartInput) {
-        int dartScore = parseDart(dartInput);
-        if (dartScore < 0) return "Invalid dart entry!";
+    public ThrowResult throwDart(String dartInput) {
+        return throwDart(Dart.parse(dartInput));
+    }
+
+    /**
+     * Processes a single dart already encoded by {@link Dart}.
+     *
+     * @param dart the encoded dart
+     * @return what the dart did, or {@link ThrowResult#INVALID_DART} if it is not a dart
+     */
+    public ThrowResult throwDart(int dart) {
+        Player thrower = currentPlayer;
+        ThrowEvent event = ThrowEvent.beginIfEnabled();
+        ThrowResult result = scoreDart(dart);
+        if (result.isValid()) {
+            for (ThrowListener listener : throwListeners) listener.onResult(this, thrower, result);
+        }
+        if (event != null && event.shouldCommit()) {
+            event.kind = ThrowEvent.DART;
+            event.value = dart;
+            event.player = thrower.getName();
+            event.result = result.name();
+            event.commit();
+        }
+        return result;
+    }
 
-        int newScore = currentPlayer.getCurrentScore() - dartScore;
+    private ThrowResult scoreDart(int dart) {
+        if (!Dart.isValid(dart)) return ThrowResult.INVALID_DART;
+        if (matchWinner != null) return ThrowResult.MATCH_OVER;
+        for (ThrowListener listener : throwListeners) listener.onDart(this, currentPlayer, dart);
+        record(MatchCodec.dartEvent(turn, dart));
+        lastDart = dart;
+        int[] score = sheet.score;
+        currentPlayer.recordDart(rules, score[side], dart);
 
-        if (newScore < 2 && newScore != 0) {
-            currentPlayer.setCurrentScore(currentPlayer.getTurnStartScore());
+        int newScore = rules.next(score[side], dart);
+
+        if (newScore == Rules.BUST) {
+            score[side] = sheet.turnStart[side];
             currentPlayer.endTurn(3, true);
             switchPlayer();
-            dartsThrown = 0;
-            return "Bust!";
+            return ThrowResult.BUST;
         }
 
-        currentPlayer.setCurrentScore(newScore);
+        score[side] = newScore;
         dartsThrown++;
 
         if (newScore == 0) {
@@ -308,50 +486,123 @@ public class Game {
         if (dartsThrown == 3) {
             currentPlayer.endTurn(3, false);
             switchPlayer();
-            dartsThrown = 0;
-            return "Switch";
+            return ThrowResult.SWITCH;
         }
-        return "";
+        return ThrowResult.NONE;
     }
 
     /** Processes a total score entry for a turn (e.g., 100, 140, 180). */
-    public String throwTotal(int totalScore) {
-        if (totalScore < 0) return "Invalid score: cannot be negative!";
-        if (totalScore > 180) return "Invalid score: cannot exceed 180!";
-        if (isImpossibleThreeDartScore(totalScore)) return "Invalid score: not possible in 3 darts!";
+    public ThrowResult throwTotal(int totalScore) {
+        return throwTotal(totalScore, 0, -1);
+    }
+
+    /**
+     * Processes a total score entry for a turn, with the darts used and the darts thrown at a double.
+     *
+     * @param totalScore points scored in the turn
+     * @param darts darts used (1 to 3), or 0 for 3, or the fewest possible on a checkout
+     * @param dartsAtDouble darts thrown at a finishing double, or -1 for 1 on a checkout and 0 otherwise
+     * @return what the turn did, or why it was rejected
+     */
+    public ThrowResult throwTotal(int totalScore, int darts, int dartsAtDouble) {
+        Player thrower = currentPlayer;
+        ThrowEvent event = ThrowEvent.beginIfEnabled();
+        ThrowResult result = scoreTotal(totalScore, darts, dartsAtDouble);
+        if (result.isValid()) {
+            for (ThrowListener listener : throwListeners) listener.onResult(this, thrower, result);
+        }
+        if (event != null && event.shouldCommit()) {
+            event.kind = ThrowEvent.TOTAL;
+            event.value = totalScore;
+            event.player = thrower.getName();
+            event.result = result.name();
+            event.commit();
+        }
+        return result;
+    }
+
+    private ThrowResult scoreTotal(int totalScore, int darts, int dartsAtDouble) {
+        if (matchWinner != null) return ThrowResult.MATCH_OVER;
+        if (totalScore < 0) return ThrowResult.NEGATIVE_SCORE;
+        if (totalScore > 180) return ThrowResult.SCORE_OVER_MAX;
+        if (darts < 0 || darts > 3) return ThrowResult.DART_COUNT;
+
+        int[] score = sheet.score;
+        boolean checkout = totalScore == score[side];
+        if (darts == 0) darts = checkout ? Math.max(1, rules.minFinishDarts(totalScore)) : 3;
+        if (!checkout && darts != 3) return ThrowResult.DARTS_WITHOUT_CHECKOUT;
+        if (!ThrowValidator.isReachable(totalScore, darts)) return ThrowResult.UNREACHABLE_SCORE;
+        if (score[side] == rules.getStartScore() && !rules.isOpeningTotal(totalScore)) return ThrowResult.UNOPENABLE_SCORE;
+        if (checkout && !rules.canFinish(totalScore, darts)) return ThrowResult.UNFINISHABLE_SCORE;
+        boolean doubleOut = rules.getOut() == Rules.Out.DOUBLE;
+        if (dartsAtDouble < 0) dartsAtDouble = checkout && doubleOut ? 1 : 0;
+        if (dartsAtDouble > darts || (checkout && doubleOut && dartsAtDouble == 0)) return ThrowResult.DARTS_AT_DOUBLE;
+
+        for (ThrowListener listener : throwListeners) {
+            listener.onTotal(this, currentPlayer, totalScore, darts, dartsAtDouble);
+        }
+        record(MatchCodec.totalEvent(turn, totalScore, darts, dartsAtDouble));
+        if (dartsAtDouble > 0) currentPlayer.recordDoubleAttempts(dartsAtDouble, checkout);
 
-        int newScore = currentPlayer.getCurrentScore() - totalScore;
+        int newScore = score[side] - totalScore;
 
-        if (newScore < 2 && newScore != 0) {
-            currentPlayer.setCurrentScore(currentPlayer.getTurnStartScore());
+        if (rules.isBust(newScore)) {
+            score[side] = sheet.turnStart[side];
             currentPlayer.endTurn(3, true);
             switchPlayer();
-            return "Bust!";
+            return ThrowResult.BUST;
         }
 
-        currentPlayer.setCurrentScore(newScore);
+        score[side] = newScore;
 
         if (newScore == 0) {
-            currentPlayer.endTurn(3, false);
+            currentPlayer.endTurn(darts, false);
             return handleLegOrSetWin(currentPlayer);
         }
 
         currentPlayer.endTurn(3, false);
         switchPlayer();
-        return "Switch";
+        return ThrowResult.SWITCH;
+    }
+
+    /**
+     * Enters a whole sequence of throws, such as {@code "T20 T20 T20 / 140 / 100"}, in one pass.
+     * The sequence is first played through a copy of the game, so that every invalid entry is
+     * reported at once; only if all are valid are the throws applied here, each reaching the
+     * listeners as if entered one at a time. See {@link ThrowBatch} for the syntax.
+     *
+     * @param sequence the throws, separated by spaces
+     * @return the checked batch, applied if it was valid
+     */
+    public ThrowBatch throwBatch(CharSequence sequence) {
+        return throwBatch(sequence, false);
     }
 
-    /** Switches the active player at the end of a turn. */
+    /**
+     * Enters a whole sequence of throws in one pass, as {@link #throwBatch(CharSequence)}.
+     *
+     * @param sequence the throws, separated by spaces
+     * @param dartsOnly whether every entry is a dart, so that a plain number such as {@code 20}
+     *                  is a single rather than a turn total
+     * @return the checked batch, applied if it was valid
+     */
+    public ThrowBatch throwBatch(CharSequence sequence, boolean dartsOnly) {
+        ThrowBatch batch = ThrowBatch.check(MatchCodec.decode(ByteBuffer.wrap(encode())), sequence, dartsOnly);
+        if (batch.isValid()) batch.applyTo(this);
+        return batch;
+    }
+
+    /** Passes the throw to the next player in the ring at the end of a turn. */
     private void switchPlayer() {
-        dartsThrown = 0;
-        currentPlayer = (currentPlayer == player1) ? player2 : player1;
-        currentPlayer.startTurn();
+        startTurn(next(turn));
     }
 
-    private boolean isImpossibleThreeDartScore(int score) {
-        for (int s : IMPOSSIBLE_THREE_DART_SCORES) {
-            if (s == score) return true;
-        }
-        return false;
+    /** Hands the throw to the player at the given position and opens their turn. */
+    private void startTurn(int seat) {
+        dartsThrown = 0;
+        turn = seat;
+        side = sideOf[seat];
+        currentPlayer = players[seat];
+        sheet.turnStart[side] = sheet.score[side];
     }
-}
\ No newline at end of file
+}
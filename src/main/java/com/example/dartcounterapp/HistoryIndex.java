@@ -0,0 +1,510 @@
+package com.example.dartcounterapp;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.WeakHashMap;
+
+/**
+ * Every throw of every finished leg, indexed so that questions such as "my average on D16
+ * over the last three months" or "my first-9 average in deciding legs" read only the throws
+ * they are about instead of the whole history.
+ *
+ * <p>Throws are kept in columns in the order their legs finished, so a date range is one
+ * contiguous range of rows found by binary search over the legs. For each player there is a
+ * list of their rows for each leg context (deciding leg or not, throwing first or second), and
+ * a list per double of the darts they threw with that double to finish. A {@link Query} picks
+ * the lists that match, narrows each to the date range by binary search and sums what is left
+ * in one pass.</p>
+ *
+ * <p>Summaries are cached in a bounded LRU cache. Finishing a leg bumps a generation counter
+ * for each player in it, and a cached summary is only used while its player's generation is
+ * unchanged, so invalidation costs nothing until the player is asked about again.</p>
+ *
+ * <p>As a {@link ThrowListener} the index records each game's throws as they are made and adds
+ * the leg when it is won; a throw taken back in a finished leg reopens that leg. Methods are
+ * synchronized, so games on other threads may record while queries run.</p>
+ */
+public final class HistoryIndex implements ThrowListener {
+
+    /** Summaries kept in the cache by default. */
+    public static final int DEFAULT_CACHE_SIZE = 1024;
+
+    private static final int FIRST_9 = 1;
+    private static final int DECIDING = 2;
+    private static final int THREW_FIRST = 4;
+    private static final int CONTEXTS = 4;
+
+    private static final int VOID = 1;
+
+    private static final int BULL_SEGMENT = 25;
+
+    private final Clock clock;
+    private final int cacheSize;
+
+    private final Map<String, Integer> playerIds = new HashMap<>();
+    private PlayerIndex[] players = new PlayerIndex[16];
+    private int playerCount;
+
+    private int[] rowLeg = new int[1 << 12];
+    private short[] rowCode = new short[1 << 12];
+    private short[] rowPoints = new short[1 << 12];
+    private byte[] rowFlags = new byte[1 << 12];
+    private int rows;
+
+    private int[] legDay = new int[256];
+    private int[] legFirstRow = new int[256];
+    private byte[] legFlags = new byte[256];
+    private int legs;
+
+    private final Map<Game, GameLegs> games = new WeakHashMap<>();
+    private final LinkedHashMap<Query, Cached> cache;
+    private long hits;
+    private long misses;
+
+    /** Creates an index that dates legs by the system clock, with the default cache size. */
+    public HistoryIndex() {
+        this(Clock.systemDefaultZone(), DEFAULT_CACHE_SIZE);
+    }
+
+    /**
+     * @param clock dates each leg as it is added; importing old matches can set it to the match date
+     * @param cacheSize number of summaries to keep cached
+     */
+    public HistoryIndex(Clock clock, int cacheSize) {
+        this.clock = clock;
+        this.cacheSize = cacheSize;
+        this.cache = new LinkedHashMap<>(cacheSize * 4 / 3 + 1, 0.75f, true);
+    }
+
+    /**
+     * Answers a query, from the cache if its player has finished no legs since it was last asked.
+     *
+     * @return the summary of the matching throws, empty for a player with no history
+     */
+    public synchronized Summary query(Query query) {
+        Integer id = playerIds.get(query.player);
+        if (id == null) return new Summary();
+        PlayerIndex player = players[id];
+        Cached cached = cache.get(query);
+        if (cached != null && cached.generation == player.generation) {
+            hits++;
+            return cached.summary;
+        }
+        misses++;
+        Summary summary = compute(player, query);
+        cache.put(query, new Cached(summary, player.generation));
+        if (cache.size() > cacheSize) {
+            var eldest = cache.entrySet().iterator();
+            eldest.next();
+            eldest.remove();
+        }
+        return summary;
+    }
+
+    /** @return number of throws in finished legs */
+    public synchronized int size() { return rows; }
+
+    /** @return number of finished legs, including any reopened by an undo */
+    public synchronized int getLegCount() { return legs; }
+
+    /** @return queries answered from the cache */
+    public synchronized long getCacheHits() { return hits; }
+
+    /** @return queries that had to read the index */
+    public synchronized long getCacheMisses() { return misses; }
+
+    private Summary compute(PlayerIndex player, Query query) {
+        int from = firstRowOnOrAfter(query.from);
+        int to = query.to == null ? rows : firstRowOnOrAfter(query.to.plusDays(1));
+        Summary summary = new Summary();
+        if (from >= to) return summary;
+
+        if (query.segment != 0) {
+            Postings darts = player.doubles[query.segment];
+            if (darts != null) {
+                for (int i = darts.lowerBound(from), end = darts.lowerBound(to); i < end; i++) {
+                    int row = darts.rows[i];
+                    if (matches(query, row)) summary.addDoubleAttempt(isHit(rowCode[row], query.segment));
+                }
+            }
+            return summary;
+        }
+
+        for (int context = 0; context < CONTEXTS; context++) {
+            Postings postings = player.contexts[context];
+            if (postings == null || !matchesContext(query, context << 1)) continue;
+            for (int i = postings.lowerBound(from), end = postings.lowerBound(to); i < end; i++) {
+                int row = postings.rows[i];
+                if ((legFlags[rowLeg[row]] & VOID) != 0) continue;
+                summary.add(rowCode[row], rowPoints[row], (rowFlags[row] & FIRST_9) != 0);
+            }
+        }
+        return summary;
+    }
+
+    private boolean matches(Query query, int row) {
+        return (legFlags[rowLeg[row]] & VOID) == 0 && matchesContext(query, rowFlags[row]);
+    }
+
+    private static boolean matchesContext(Query query, int flags) {
+        if (query.deciding != null && query.deciding != ((flags & DECIDING) != 0)) return false;
+        return query.threwFirst == null || query.threwFirst == ((flags & THREW_FIRST) != 0);
+    }
+
+    private static boolean isHit(int code, int segment) {
+        return Dart.isDouble(code) && Dart.segment(code) == segment;
+    }
+
+    /** @return the first row of the first leg dated on or after the day, or 0 for no bound */
+    private int firstRowOnOrAfter(LocalDate date) {
+        if (date == null) return 0;
+        int day = (int) date.toEpochDay();
+        int lo = 0;
+        int hi = legs;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (legDay[mid] < day) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo == legs ? rows : legFirstRow[lo];
+    }
+
+    @Override
+    public synchronized void onDart(Game game, Player thrower, int dart) {
+        // Under a double or master in, darts before the opening one score nothing.
+        int after = game.getRules().next(thrower.getCurrentScore(), dart);
+        record(game, thrower, dart, after == Rules.BUST ? 0 : thrower.getCurrentScore() - after, 1);
+    }
+
+    @Override
+    public synchronized void onTotal(Game game, Player thrower, int total, int darts, int dartsAtDouble) {
+        record(game, thrower, ThrowArchiveWriter.totalCode(total, darts, dartsAtDouble), total, darts);
+    }
+
+    private void record(Game game, Player thrower, int code, int points, int darts) {
+        GameLegs state = games.computeIfAbsent(game, g -> new GameLegs());
+        if (state.pending == null) state.pending = startLeg(game);
+        int turn = thrower.getStats().getTurnsThisLeg();
+        int flags = state.pending.flags | (turn < 3 ? FIRST_9 : 0)
+                | (thrower.getSide() == state.pending.starterSide ? THREW_FIRST : 0);
+        state.pending.add(playerId(thrower.getName()), turn, thrower.getCurrentScore(), code, points, flags);
+    }
+
+    private static LegRows startLeg(Game game) {
+        LegRows leg = new LegRows();
+        leg.rules = game.getRules();
+        leg.legsPlayed = game.getLegsPlayed();
+        leg.starterSide = game.getCurrentSide();
+        boolean deciding = true;
+        for (int side = 0; side < game.getSideCount() && deciding; side++) {
+            deciding = game.getSidePlayers(side)[0].getLegsWon() == game.getLegsPerSet() - 1;
+        }
+        leg.flags = deciding ? DECIDING : 0;
+        return leg;
+    }
+
+    /** Scores the darts of a bust turn as nothing, as {@link PlayerStats} does. */
+    @Override
+    public synchronized void onResult(Game game, Player thrower, ThrowResult result) {
+        if (result != ThrowResult.BUST) return;
+        GameLegs state = games.get(game);
+        if (state != null && state.pending != null) state.pending.bustTurn(playerId(thrower.getName()));
+    }
+
+    /** Adds the finished leg to the index. */
+    @Override
+    public synchronized void onLegWon(Game game, Player winner) {
+        GameLegs state = games.get(game);
+        if (state == null || state.pending == null) return;
+        LegRows leg = state.pending;
+        state.pending = null;
+        add(leg);
+        state.finished.push(leg);
+    }
+
+    /**
+     * Takes the last throw back out of the game's current leg, or reopens the game's last
+     * finished leg if the throw that won it was taken back.
+     */
+    @Override
+    public synchronized void onUndo(Game game) {
+        GameLegs state = games.get(game);
+        if (state == null) return;
+        if (state.pending == null || state.pending.count == 0) {
+            if (state.finished.isEmpty() || state.finished.peek().legsPlayed < game.getLegsPlayed()) return;
+            LegRows leg = state.finished.pop();
+            legFlags[leg.leg] |= VOID;
+            for (int i = 0; i < leg.count; i++) players[leg.player[i]].generation++;
+            state.pending = leg;
+        }
+        state.pending.removeLast();
+    }
+
+    /** Appends a finished leg's rows and adds them to their players' lists. */
+    private void add(LegRows leg) {
+        if (legs == legDay.length) {
+            legDay = Arrays.copyOf(legDay, legs * 2);
+            legFirstRow = Arrays.copyOf(legFirstRow, legs * 2);
+            legFlags = Arrays.copyOf(legFlags, legs * 2);
+        }
+        // Days never go backwards, so a date range stays one range of legs.
+        int day = (int) LocalDate.now(clock).toEpochDay();
+        legDay[legs] = legs == 0 ? day : Math.max(day, legDay[legs - 1]);
+        legFirstRow[legs] = rows;
+        legFlags[legs] = 0;
+        leg.leg = legs++;
+
+        if (rows + leg.count > rowLeg.length) {
+            int capacity = Math.max(rowLeg.length * 2, rows + leg.count);
+            rowLeg = Arrays.copyOf(rowLeg, capacity);
+            rowCode = Arrays.copyOf(rowCode, capacity);
+            rowPoints = Arrays.copyOf(rowPoints, capacity);
+            rowFlags = Arrays.copyOf(rowFlags, capacity);
+        }
+        for (int i = 0; i < leg.count; i++) {
+            int row = rows++;
+            int code = leg.code[i];
+            rowLeg[row] = leg.leg;
+            rowCode[row] = (short) code;
+            rowPoints[row] = (short) (leg.bust[i] ? 0 : leg.points[i]);
+            rowFlags[row] = (byte) leg.flags(i);
+
+            PlayerIndex player = players[leg.player[i]];
+            player.context(leg.flags(i) >> 1).add(row);
+            int target = leg.rules.finishingDouble(leg.scoreBefore[i]);
+            if (target != 0 && (code & ThrowArchiveWriter.TOTAL_FLAG) == 0) player.doubles(target).add(row);
+            player.generation++;
+        }
+    }
+
+    private int playerId(String name) {
+        Integer id = playerIds.get(name);
+        if (id != null) return id;
+        if (playerCount == players.length) players = Arrays.copyOf(players, playerCount * 2);
+        players[playerCount] = new PlayerIndex();
+        playerIds.put(name, playerCount);
+        return playerCount++;
+    }
+
+    /**
+     * What to summarise: one player's throws, optionally limited to a date range, to deciding
+     * legs or not, to legs they threw first or second in, and to darts at one finishing double.
+     * Queries are immutable and compare by value, so equal queries share a cache entry.
+     */
+    public static final class Query {
+        private final String player;
+        private final LocalDate from;
+        private final LocalDate to;
+        private final Boolean deciding;
+        private final Boolean threwFirst;
+        private final int segment;
+
+        private Query(String player, LocalDate from, LocalDate to, Boolean deciding, Boolean threwFirst, int segment) {
+            this.player = Objects.requireNonNull(player);
+            this.from = from;
+            this.to = to;
+            this.deciding = deciding;
+            this.threwFirst = threwFirst;
+            this.segment = segment;
+        }
+
+        /** @return a query over all of the player's throws */
+        public static Query of(String player) {
+            return new Query(player, null, null, null, null, 0);
+        }
+
+        /** @return this query limited to legs finished on or between the given days; null leaves a side open */
+        public Query between(LocalDate from, LocalDate to) {
+            return new Query(player, from, to, deciding, threwFirst, segment);
+        }
+
+        /** @return this query limited to legs that were, or were not, the deciding leg of their set */
+        public Query deciding(boolean deciding) {
+            return new Query(player, from, to, deciding, threwFirst, segment);
+        }
+
+        /** @return this query limited to legs the player's side threw first in, or second */
+        public Query threwFirst(boolean threwFirst) {
+            return new Query(player, from, to, deciding, threwFirst, segment);
+        }
+
+        /**
+         * @param segment the double, 1-20 or 25 for the bull
+         * @return this query limited to darts thrown with that double to finish
+         */
+        public Query onDouble(int segment) {
+            if ((segment < 1 || segment > 20) && segment != BULL_SEGMENT) {
+                throw new IllegalArgumentException("No double " + segment);
+            }
+            return new Query(player, from, to, deciding, threwFirst, segment);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Query q && player.equals(q.player) && Objects.equals(from, q.from)
+                    && Objects.equals(to, q.to) && Objects.equals(deciding, q.deciding)
+                    && Objects.equals(threwFirst, q.threwFirst) && segment == q.segment;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(player, from, to, deciding, threwFirst, segment);
+        }
+    }
+
+    /** Totals over the throws a {@link Query} matched. */
+    public static final class Summary {
+        private long darts;
+        private long points;
+        private long first9Darts;
+        private long first9Points;
+        private int doubleAttempts;
+        private int doubleHits;
+
+        void add(int code, int scored, boolean first9) {
+            int used = (code & ThrowArchiveWriter.TOTAL_FLAG) != 0 ? (code >>> 8) & 0x3 : 1;
+            darts += used;
+            points += scored;
+            if (first9) {
+                first9Darts += used;
+                first9Points += scored;
+            }
+        }
+
+        void addDoubleAttempt(boolean hit) {
+            doubleAttempts++;
+            if (hit) doubleHits++;
+        }
+
+        public long getDarts() { return darts; }
+        public long getPoints() { return points; }
+
+        /** @return points per three darts, or 0 with no darts */
+        public double getThreeDartAverage() {
+            return darts == 0 ? 0.0 : 3.0 * points / darts;
+        }
+
+        /** @return points per three darts over the first nine darts of each leg, or 0 with none */
+        public double getFirst9Average() {
+            return first9Darts == 0 ? 0.0 : 3.0 * first9Points / first9Darts;
+        }
+
+        /** @return darts thrown at the query's double with it to finish */
+        public int getDoubleAttempts() { return doubleAttempts; }
+
+        /** @return of those, the darts that hit it */
+        public int getDoubleHits() { return doubleHits; }
+
+        /** @return hits as a share of attempts at the query's double, between 0 and 1 */
+        public double getDoubleRate() {
+            return doubleAttempts == 0 ? 0.0 : (double) doubleHits / doubleAttempts;
+        }
+    }
+
+    private record Cached(Summary summary, int generation) { }
+
+    /** One player's row lists; {@code generation} changes whenever a leg adds to them. */
+    private static final class PlayerIndex {
+        final Postings[] contexts = new Postings[CONTEXTS];
+        final Postings[] doubles = new Postings[BULL_SEGMENT + 1];
+        int generation;
+
+        Postings context(int context) {
+            if (contexts[context] == null) contexts[context] = new Postings();
+            return contexts[context];
+        }
+
+        Postings doubles(int segment) {
+            if (doubles[segment] == null) doubles[segment] = new Postings();
+            return doubles[segment];
+        }
+    }
+
+    /** Ascending row numbers. */
+    private static final class Postings {
+        int[] rows = new int[64];
+        int size;
+
+        void add(int row) {
+            if (size == rows.length) rows = Arrays.copyOf(rows, size * 2);
+            rows[size++] = row;
+        }
+
+        /** @return the index of the first row at or after the given one */
+        int lowerBound(int row) {
+            int lo = 0;
+            int hi = size;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (rows[mid] < row) lo = mid + 1;
+                else hi = mid;
+            }
+            return lo;
+        }
+    }
+
+    /** A game's leg in progress, and the legs it has finished, newest first. */
+    private static final class GameLegs {
+        LegRows pending;
+        final ArrayDeque<LegRows> finished = new ArrayDeque<>();
+    }
+
+    /** The throws of one leg of one game, as recorded. */
+    private static final class LegRows {
+        Rules rules;
+        int legsPlayed;
+        int starterSide;
+        int flags;
+        int leg = -1;
+
+        int[] player = new int[32];
+        int[] turn = new int[32];
+        int[] scoreBefore = new int[32];
+        int[] code = new int[32];
+        int[] points = new int[32];
+        int[] rowFlags = new int[32];
+        boolean[] bust = new boolean[32];
+        int count;
+
+        void add(int playerId, int turnNumber, int score, int throwCode, int scored, int throwFlags) {
+            if (count == player.length) {
+                int capacity = count * 2;
+                player = Arrays.copyOf(player, capacity);
+                turn = Arrays.copyOf(turn, capacity);
+                scoreBefore = Arrays.copyOf(scoreBefore, capacity);
+                code = Arrays.copyOf(code, capacity);
+                points = Arrays.copyOf(points, capacity);
+                rowFlags = Arrays.copyOf(rowFlags, capacity);
+                bust = Arrays.copyOf(bust, capacity);
+            }
+            player[count] = playerId;
+            turn[count] = turnNumber;
+            scoreBefore[count] = score;
+            code[count] = throwCode;
+            points[count] = scored;
+            rowFlags[count] = throwFlags;
+            bust[count] = false;
+            count++;
+        }
+
+        int flags(int i) { return rowFlags[i]; }
+
+        /** Marks the player's latest turn as bust. */
+        void bustTurn(int playerId) {
+            for (int i = count - 1; i >= 0 && player[i] == playerId && turn[i] == turn[count - 1]; i--) bust[i] = true;
+        }
+
+        /** Drops the last throw; any bust in its turn was that throw's doing. */
+        void removeLast() {
+            if (count == 0) return;
+            count--;
+            for (int i = count - 1; i >= 0 && player[i] == player[count] && turn[i] == turn[count]; i--) bust[i] = false;
+        }
+    }
+}
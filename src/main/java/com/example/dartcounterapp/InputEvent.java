@@ -0,0 +1,22 @@
+package com.example.dartcounterapp;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/** JFR event covering the scoreboard's handling of one entry, from the key press to the state update. */
+@Name("com.example.dartcounter.Input")
+@Label("Input")
+@Category({"DartCounter", "UI"})
+@Description("One dart or total entered on the scoreboard")
+@StackTrace(false)
+final class InputEvent extends jdk.jfr.Event {
+
+    @Label("Per-Dart Mode")
+    boolean perDart;
+
+    @Label("Result")
+    String result;
+}
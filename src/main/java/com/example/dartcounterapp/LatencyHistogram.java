@@ -0,0 +1,75 @@
+package com.example.dartcounterapp;
+
+import java.util.Arrays;
+
+/**
+ * A fixed-size, log-linear latency histogram in the style of HdrHistogram.
+ * Values are bucketed by power of two with 16 linear sub-buckets each, so any recorded
+ * value is reported to within about 6% and the whole range of a long fits in 1024 counters.
+ * Recording is a couple of bit operations and one array increment, with no allocation.
+ *
+ * <p>Not thread-safe: record from a single thread. Reads from other threads see
+ * a slightly stale but usable view.</p>
+ */
+public final class LatencyHistogram {
+
+    private static final int SUB_BITS = 5;
+    private static final int SUB_COUNT = 1 << SUB_BITS;
+    private static final int HALF_COUNT = SUB_COUNT >>> 1;
+    private static final int BUCKETS = 64 * HALF_COUNT;
+
+    private final long[] counts = new long[BUCKETS];
+    private long total;
+    private long max;
+
+    /** Records one value, typically a duration in nanoseconds. Negative values count as 0. */
+    public void record(long value) {
+        if (value < 0) value = 0;
+        counts[indexOf(value)]++;
+        total++;
+        if (value > max) max = value;
+    }
+
+    /** @return number of values recorded */
+    public long getCount() { return total; }
+
+    /** @return the largest value recorded, or 0 if none */
+    public long getMax() { return max; }
+
+    /**
+     * Returns the value at the given percentile.
+     *
+     * @param percentile between 0 and 100
+     * @return the midpoint of the bucket holding that percentile, or 0 if nothing was recorded
+     */
+    public long getValueAtPercentile(double percentile) {
+        if (total == 0) return 0;
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * total));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= rank) return Math.min(midpointOf(i), max);
+        }
+        return max;
+    }
+
+    /** Clears all recorded values. */
+    public void reset() {
+        Arrays.fill(counts, 0);
+        total = 0;
+        max = 0;
+    }
+
+    private static int indexOf(long value) {
+        if (value < SUB_COUNT) return (int) value;
+        int shift = 63 - Long.numberOfLeadingZeros(value) - (SUB_BITS - 1);
+        return shift * HALF_COUNT + (int) (value >>> shift);
+    }
+
+    private static long midpointOf(int index) {
+        if (index < SUB_COUNT) return index;
+        int shift = index / HALF_COUNT - 1;
+        long lowest = (long) (index - shift * HALF_COUNT) << shift;
+        return lowest + (1L << (shift - 1));
+    }
+}
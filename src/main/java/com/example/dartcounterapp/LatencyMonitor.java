@@ -0,0 +1,134 @@
+package com.example.dartcounterapp;
+
+import javafx.scene.Scene;
+import javafx.scene.control.Label;
+import javafx.scene.input.KeyCode;
+import javafx.scene.input.KeyEvent;
+import javafx.scene.layout.BorderPane;
+
+/**
+ * Measures the scoreboard's input-to-render path on the FX thread: the time to handle an
+ * entry, the time spent scoring it in {@link Game}, the time to render the labels, the
+ * layout pass of each FX pulse, and the time from an entry to the end of the pulse
+ * that puts it on screen. Each is kept in a {@link LatencyHistogram} and the render
+ * is also emitted as a {@link RenderEvent} for JFR.
+ *
+ * <p>An overlay with p50/p99 of input-to-render latency and pulse duration can be shown
+ * with F3, or from startup with {@code -Ddartcounter.latencyOverlay=true}.</p>
+ */
+final class LatencyMonitor {
+
+    private static final long OVERLAY_REFRESH_NANOS = 250_000_000L;
+
+    private final LatencyHistogram input = new LatencyHistogram();
+    private final LatencyHistogram scoring = new LatencyHistogram();
+    private final LatencyHistogram render = new LatencyHistogram();
+    private final LatencyHistogram pulse = new LatencyHistogram();
+    private final LatencyHistogram inputToRender = new LatencyHistogram();
+
+    private long pendingInput;
+    private long renderedInput;
+    private RenderEvent renderEvent;
+    private long pulseStart;
+
+    private final Label overlay = new Label();
+    private long overlayUpdated;
+
+    LatencyMonitor() {
+        overlay.setStyle("-fx-font-size: 16px; -fx-font-family: monospace; -fx-text-fill: #ffcc00;");
+        overlay.setVisible(Boolean.getBoolean("dartcounter.latencyOverlay"));
+        overlay.setManaged(overlay.isVisible());
+    }
+
+    /** Hooks the monitor into the scene's pulses, adds the overlay and binds F3 to toggle it. */
+    void attach(Scene scene) {
+        scene.addPreLayoutPulseListener(() -> pulseStart = System.nanoTime());
+        scene.addPostLayoutPulseListener(this::pulseEnded);
+        scene.addEventFilter(KeyEvent.KEY_PRESSED, e -> {
+            if (e.getCode() == KeyCode.F3) {
+                overlay.setVisible(!overlay.isVisible());
+                overlay.setManaged(overlay.isVisible());
+            }
+        });
+        if (scene.getRoot() instanceof BorderPane root && root.getTop() == null) root.setTop(overlay);
+    }
+
+    /** Marks the start of handling an entry. @return the start time to pass to {@link #inputFinished} */
+    long inputStarted() {
+        long now = System.nanoTime();
+        if (pendingInput == 0) pendingInput = now;
+        return now;
+    }
+
+    /** Records the time to handle an entry. */
+    void inputFinished(long start) {
+        input.record(System.nanoTime() - start);
+    }
+
+    /** Records the time one call into {@link Game} took to score an entry. */
+    void scored(long start) {
+        scoring.record(System.nanoTime() - start);
+    }
+
+    /** Marks the start of a render. @return the start time to pass to {@link #renderFinished} */
+    long renderStarted() {
+        if (pendingInput != 0) {
+            renderedInput = pendingInput;
+            pendingInput = 0;
+        }
+        renderEvent = new RenderEvent();
+        renderEvent.begin();
+        return System.nanoTime();
+    }
+
+    /** Records the time to render the labels. */
+    void renderFinished(long start) {
+        render.record(System.nanoTime() - start);
+        renderEvent.end();
+    }
+
+    private void pulseEnded() {
+        long now = System.nanoTime();
+        if (pulseStart != 0) pulse.record(now - pulseStart);
+        pulseStart = 0;
+
+        if (renderedInput != 0) {
+            long latency = now - renderedInput;
+            inputToRender.record(latency);
+            renderedInput = 0;
+            if (renderEvent != null && renderEvent.shouldCommit()) {
+                renderEvent.inputLatency = latency;
+                renderEvent.commit();
+            }
+            renderEvent = null;
+        }
+
+        if (overlay.isVisible() && now - overlayUpdated >= OVERLAY_REFRESH_NANOS) {
+            overlayUpdated = now;
+            overlay.setText("input→render p50 " + formatMillis(inputToRender.getValueAtPercentile(50))
+                    + "  p99 " + formatMillis(inputToRender.getValueAtPercentile(99))
+                    + "   pulse p50 " + formatMillis(pulse.getValueAtPercentile(50))
+                    + "  p99 " + formatMillis(pulse.getValueAtPercentile(99)));
+        }
+    }
+
+    /** @return one line per histogram with its count, p50, p99 and max */
+    String summary() {
+        return line("input", input) + line("scoring", scoring) + line("render", render)
+                + line("pulse", pulse) + line("input→render", inputToRender);
+    }
+
+    private static String line(String name, LatencyHistogram h) {
+        return name + ": n=" + h.getCount()
+                + " p50=" + formatMillis(h.getValueAtPercentile(50))
+                + " p99=" + formatMillis(h.getValueAtPercentile(99))
+                + " max=" + formatMillis(h.getMax()) + '\n';
+    }
+
+    /** Formats nanoseconds as milliseconds to two decimal places. */
+    static String formatMillis(long nanos) {
+        long hundredths = nanos / 10_000;
+        long fraction = hundredths % 100;
+        return (hundredths / 100) + (fraction < 10 ? ".0" : ".") + fraction + " ms";
+    }
+}
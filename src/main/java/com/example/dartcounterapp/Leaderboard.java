@@ -0,0 +1,409 @@
+package com.example.dartcounterapp;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Elo ratings for a league, updated one result at a time, with the players kept ranked
+ * in an order-statistic tree so that rank, rank lookup and top-K queries are O(log n)
+ * (plus K) instead of a sort.
+ *
+ * <p>Every leg won moves ratings by up to {@value #LEG_K} points and every match by up to
+ * {@value #MATCH_K}. A team is rated on the mean of its members and each member gets the
+ * team's change. With more than two sides the winner is scored against each other side,
+ * with the change shared between those pairings.</p>
+ *
+ * <p>Results are recorded one call at a time under the board's lock. Queries take no lock:
+ * the ranking is an immutable treap that each recording call copies the changed paths of
+ * and publishes when it returns, so a query always walks a consistent ranking and never
+ * waits for a result being recorded. A call re-files each player it moved once, however
+ * many legs it records, and nodes it has already copied are updated in place.</p>
+ *
+ * <p>As a {@link ThrowListener} the board rates every leg and match a game plays, and takes
+ * the rating back when the game undoes the throw that won it.</p>
+ */
+public final class Leaderboard implements ThrowListener {
+
+    /** Rating of a player before their first result. */
+    public static final double INITIAL_RATING = 1500;
+
+    /** Largest rating change for one leg. */
+    public static final int LEG_K = 8;
+
+    /** Largest rating change for one match, on top of its legs. */
+    public static final int MATCH_K = 24;
+
+    private final Map<String, Standing> standings = new ConcurrentHashMap<>();
+    private volatile Node root;
+
+    // Guarded by this.
+    private final Map<String, Standing> unfiled = new HashMap<>();
+    private int version = 1;
+    private int nextId;
+    private final Map<Game, ArrayDeque<Applied>> applied = new WeakHashMap<>();
+
+    /**
+     * Records one leg.
+     *
+     * @param sides the names of the players on each side
+     * @param winner index of the side that won the leg
+     */
+    public synchronized void recordLeg(String[][] sides, int winner) {
+        rate(sides, winner, false);
+        publish();
+    }
+
+    /**
+     * Records a whole match from the legs each side won: every leg, taken in turn from the
+     * sides that still have legs to give, and then the match for the side with the most.
+     *
+     * @param sides the names of the players on each side
+     * @param legsWon legs won by each side
+     */
+    public synchronized void recordMatch(String[][] sides, int[] legsWon) {
+        int[] left = legsWon.clone();
+        int winner = 0;
+        for (int side = 1; side < left.length; side++) if (left[side] > left[winner]) winner = side;
+        for (boolean more = true; more; ) {
+            more = false;
+            for (int side = 0; side < left.length; side++) {
+                if (left[side] == 0) continue;
+                left[side]--;
+                rate(sides, side, false);
+                more = true;
+            }
+        }
+        rate(sides, winner, true);
+        publish();
+    }
+
+    /**
+     * @return the player's standing, or null if they have no results; it may already include a
+     *         result that is still being recorded and not yet in the ranking
+     */
+    public Standing get(String name) {
+        return standings.get(name);
+    }
+
+    /** @return the player's rank, from 1 for the highest rated, or 0 if they have no results */
+    public int rankOf(String name) {
+        Standing standing = standings.get(name);
+        if (standing == null) return 0;
+        int before = 0;
+        for (Node n = root; n != null; ) {
+            if (compare(standing, n.standing) <= 0) {
+                n = n.left;
+            } else {
+                before += size(n.left) + 1;
+                n = n.right;
+            }
+        }
+        return before + 1;
+    }
+
+    /** @return the standing at the given rank, from 1, or null if there are fewer players */
+    public Standing atRank(int rank) {
+        Node n = root;
+        if (rank < 1 || rank > size(n)) return null;
+        for (int k = rank - 1; ; ) {
+            int left = size(n.left);
+            if (k == left) return n.standing;
+            if (k < left) {
+                n = n.left;
+            } else {
+                k -= left + 1;
+                n = n.right;
+            }
+        }
+    }
+
+    /** @return the highest rated players, best first, at most {@code k} of them */
+    public List<Standing> top(int k) {
+        List<Standing> top = new ArrayList<>(Math.max(0, Math.min(k, size(root))));
+        ArrayDeque<Node> path = new ArrayDeque<>();
+        for (Node n = root; top.size() < k && (n != null || !path.isEmpty()); ) {
+            if (n != null) {
+                path.push(n);
+                n = n.left;
+            } else {
+                n = path.pop();
+                top.add(n.standing);
+                n = n.right;
+            }
+        }
+        return Collections.unmodifiableList(top);
+    }
+
+    /** @return number of rated players */
+    public int size() {
+        return size(root);
+    }
+
+    @Override
+    public void onDart(Game game, Player thrower, int dart) { }
+
+    @Override
+    public void onTotal(Game game, Player thrower, int total, int darts, int dartsAtDouble) { }
+
+    /** Rates the leg, and the match if it was the last one. */
+    @Override
+    public synchronized void onLegWon(Game game, Player winner) {
+        String[][] sides = new String[game.getSideCount()][];
+        for (int side = 0; side < sides.length; side++) {
+            Player[] members = game.getSidePlayers(side);
+            sides[side] = new String[members.length];
+            for (int m = 0; m < members.length; m++) sides[side][m] = members[m].getName();
+        }
+        ArrayDeque<Applied> history = applied.computeIfAbsent(game, g -> new ArrayDeque<>());
+        history.push(rate(sides, winner.getSide(), false).at(game.getLegsPlayed()));
+        if (game.getMatchWinner() != null) {
+            history.push(rate(sides, winner.getSide(), true).at(game.getLegsPlayed()));
+        }
+        publish();
+    }
+
+    /** Takes back the ratings of any leg the game no longer counts as played. */
+    @Override
+    public synchronized void onUndo(Game game) {
+        ArrayDeque<Applied> history = applied.get(game);
+        if (history == null) return;
+        boolean changed = false;
+        while (!history.isEmpty() && history.peek().legsPlayed > game.getLegsPlayed()) {
+            history.pop().revert(this);
+            changed = true;
+        }
+        if (changed) publish();
+    }
+
+    /** Applies one result against the ratings as they stand, and returns what it changed. */
+    private Applied rate(String[][] sides, int winner, boolean match) {
+        double k = match ? MATCH_K : LEG_K;
+        double[] change = new double[sides.length];
+        double winnerRating = meanRating(sides[winner]);
+        for (int side = 0; side < sides.length; side++) {
+            if (side == winner) continue;
+            double expected = 1 / (1 + Math.pow(10, (meanRating(sides[side]) - winnerRating) / 400));
+            double delta = k * (1 - expected) / (sides.length - 1);
+            change[winner] += delta;
+            change[side] -= delta;
+        }
+
+        Applied result = new Applied(sides, winner, change, match);
+        for (int side = 0; side < sides.length; side++) {
+            boolean won = side == winner;
+            // A match result moves the match counts only; its legs were counted as they were rated.
+            int legWin = !match && won ? 1 : 0;
+            int legLoss = !match && !won ? 1 : 0;
+            for (String name : sides[side]) adjust(name, change[side], legWin, legLoss, match ? 1 : 0, match && won ? 1 : 0);
+        }
+        return result;
+    }
+
+    private double meanRating(String[] members) {
+        double sum = 0;
+        for (String name : members) {
+            Standing standing = standings.get(name);
+            sum += standing == null ? INITIAL_RATING : standing.rating;
+        }
+        return sum / members.length;
+    }
+
+    /** Moves a player's rating and counts; they are re-filed in the ranking when it is published. */
+    private void adjust(String name, double rating, int legsWon, int legsLost, int played, int matchesWon) {
+        Standing old = standings.get(name);
+        Standing updated;
+        if (old == null) {
+            updated = new Standing(name, nextId++, INITIAL_RATING + rating, legsWon, legsLost, matchesWon, played);
+        } else {
+            updated = new Standing(name, old.id, old.rating + rating, old.legsWon + legsWon,
+                    old.legsLost + legsLost, old.matchesWon + matchesWon, old.matchesPlayed + played);
+        }
+        if (!unfiled.containsKey(name)) unfiled.put(name, old);
+        standings.put(name, updated);
+    }
+
+    /**
+     * Re-files every player changed since the last publish, once each however many results
+     * moved them, and makes the new ranking visible to queries. Nodes published are never
+     * changed again.
+     */
+    private void publish() {
+        Node t = root;
+        for (Map.Entry<String, Standing> e : unfiled.entrySet()) {
+            if (e.getValue() != null) t = remove(t, e.getValue());
+            t = insert(t, new Node(standings.get(e.getKey()), version));
+        }
+        unfiled.clear();
+        root = t;
+        version++;
+    }
+
+    /** @return the node itself if this call's version owns it, or a copy that it owns */
+    private Node own(Node n) {
+        if (n.version == version) return n;
+        Node copy = new Node(n.standing, version);
+        copy.left = n.left;
+        copy.right = n.right;
+        copy.size = n.size;
+        return copy;
+    }
+
+    private Node insert(Node t, Node node) {
+        if (t == null) return node;
+        t = own(t);
+        if (compare(node.standing, t.standing) < 0) {
+            t.left = insert(t.left, node);
+            if (t.left.priority > t.priority) t = rotateRight(t);
+        } else {
+            t.right = insert(t.right, node);
+            if (t.right.priority > t.priority) t = rotateLeft(t);
+        }
+        t.resize();
+        return t;
+    }
+
+    private Node remove(Node t, Standing standing) {
+        int c = compare(standing, t.standing);
+        if (c == 0) return merge(t.left, t.right);
+        t = own(t);
+        if (c < 0) t.left = remove(t.left, standing);
+        else t.right = remove(t.right, standing);
+        t.resize();
+        return t;
+    }
+
+    private Node merge(Node a, Node b) {
+        if (a == null) return b;
+        if (b == null) return a;
+        if (a.priority > b.priority) {
+            a = own(a);
+            a.right = merge(a.right, b);
+            a.resize();
+            return a;
+        }
+        b = own(b);
+        b.left = merge(a, b.left);
+        b.resize();
+        return b;
+    }
+
+    /** Rotates an owned node's owned left child above it. */
+    private static Node rotateRight(Node t) {
+        Node l = t.left;
+        t.left = l.right;
+        l.right = t;
+        t.resize();
+        return l;
+    }
+
+    /** Rotates an owned node's owned right child above it. */
+    private static Node rotateLeft(Node t) {
+        Node r = t.right;
+        t.right = r.left;
+        r.left = t;
+        t.resize();
+        return r;
+    }
+
+    private static int size(Node n) {
+        return n == null ? 0 : n.size;
+    }
+
+    /** Orders by rating, highest first, then by when the player was first rated. */
+    private static int compare(Standing a, Standing b) {
+        int c = Double.compare(b.rating, a.rating);
+        return c != 0 ? c : Integer.compare(a.id, b.id);
+    }
+
+    /** A player's rating and record at one point in time. */
+    public static final class Standing {
+        private final String name;
+        private final int id;
+        private final double rating;
+        private final int legsWon;
+        private final int legsLost;
+        private final int matchesWon;
+        private final int matchesPlayed;
+
+        Standing(String name, int id, double rating, int legsWon, int legsLost, int matchesWon, int matchesPlayed) {
+            this.name = name;
+            this.id = id;
+            this.rating = rating;
+            this.legsWon = legsWon;
+            this.legsLost = legsLost;
+            this.matchesWon = matchesWon;
+            this.matchesPlayed = matchesPlayed;
+        }
+
+        public String getName() { return name; }
+        public double getRating() { return rating; }
+        public int getLegsWon() { return legsWon; }
+        public int getLegsLost() { return legsLost; }
+        public int getMatchesWon() { return matchesWon; }
+        public int getMatchesPlayed() { return matchesPlayed; }
+
+        @Override
+        public String toString() {
+            return String.format("%s %.1f (legs %d-%d, matches %d/%d)",
+                    name, rating, legsWon, legsLost, matchesWon, matchesPlayed);
+        }
+    }
+
+    /** Treap node. Only the writer touches nodes of the unpublished version. */
+    private static final class Node {
+        final Standing standing;
+        final int priority;
+        final int version;
+        Node left, right;
+        int size = 1;
+
+        Node(Standing standing, int version) {
+            this.standing = standing;
+            this.version = version;
+            int h = standing.id * 0x9E3779B9;
+            this.priority = h ^ (h >>> 16);
+        }
+
+        void resize() {
+            size = 1 + Leaderboard.size(left) + Leaderboard.size(right);
+        }
+    }
+
+    /** One result as applied to the ratings, kept so that an undo can take it back. */
+    private static final class Applied {
+        final String[][] sides;
+        final int winner;
+        final double[] change;
+        final boolean match;
+        int legsPlayed;
+
+        Applied(String[][] sides, int winner, double[] change, boolean match) {
+            this.sides = sides;
+            this.winner = winner;
+            this.change = change;
+            this.match = match;
+        }
+
+        Applied at(int legsPlayed) {
+            this.legsPlayed = legsPlayed;
+            return this;
+        }
+
+        void revert(Leaderboard board) {
+            for (int side = 0; side < sides.length; side++) {
+                boolean won = side == winner;
+                int legWin = !match && won ? -1 : 0;
+                int legLoss = !match && !won ? -1 : 0;
+                for (String name : sides[side]) {
+                    board.adjust(name, -change[side], legWin, legLoss, match ? -1 : 0, match && won ? -1 : 0);
+                }
+            }
+        }
+    }
+}
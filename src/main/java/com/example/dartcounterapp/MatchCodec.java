@@ -0,0 +1,418 @@
+package com.example.dartcounterapp;
+
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * The binary form of a match: the full {@link Game} and {@link Player} state, and single
+ * throws, read and written directly on {@link ByteBuffer}s. Snapshots, transport and any
+ * other store share this one versioned format.
+ *
+ * <p>Numbers are unsigned LEB128 varints, so a counter under 128 takes one byte, and sparse
+ * tables such as turn-score counts only store their non-zero entries. A two-player match,
+ * statistics included, is typically 200 to 700 bytes.</p>
+ *
+ * <p>Match layout: magic {@code "DCM"}, version byte, target score, the in and out
+ * {@link Rules} (from version 2; version 1 matches are double out), legs per set, sets to
+ * win, side count, players per side, the players' names by side (UTF-8, length first), then
+ * the match state and each player's statistics.</p>
+ *
+ * <p>A throw is packed into one int, the <em>event</em>, and written as a single varint of
+ * two or three bytes. Events are plain ints, like {@link Dart} codes, so decoding one
+ * allocates nothing; read their fields with {@link #seat}, {@link #isTotal},
+ * {@link #value}, {@link #darts} and {@link #dartsAtDouble}.</p>
+ *
+ * <p>Matches are encoded through a per-thread {@link Cursor} over a byte array, either the
+ * buffer's own array or a reused scratch array copied in bulk, because per-byte puts on a
+ * {@code ByteBuffer} cost several times more than the encoding itself.</p>
+ */
+public final class MatchCodec {
+
+    /** Format version written after the magic; decoding accepts it and every earlier one. */
+    public static final int VERSION = 2;
+
+    private static final int FIRST_VERSION_WITH_RULES = 2;
+
+    private static final int MAGIC = 0x44434D; // "DCM"
+
+    private static final int KIND_BIT = 1;
+    private static final int DARTS_SHIFT = 1;
+    private static final int AT_DOUBLE_SHIFT = 3;
+    private static final int VALUE_SHIFT = 6;
+    private static final int SEAT_SHIFT = 14;
+
+    private static final ThreadLocal<Cursor> CURSORS = ThreadLocal.withInitial(Cursor::new);
+
+    private MatchCodec() { }
+
+    /** @return an upper bound on the bytes {@link #encode} writes for the game */
+    public static int maxSize(Game game) {
+        int size = 4 + 6 * 5;
+        for (int i = 0; i < game.getPlayerCount(); i++) size += 5 + 3 * game.getPlayer(i).getName().length();
+        return size + game.stateSize();
+    }
+
+    /**
+     * Writes the whole match at the buffer's position.
+     *
+     * @throws BufferOverflowException if the match does not fit in the buffer's remaining
+     *         space, which {@link #maxSize} bytes always will
+     */
+    public static void encode(Game game, ByteBuffer out) {
+        Cursor c = CURSORS.get().forWriting();
+        c.putInt(MAGIC << 8 | VERSION);
+        c.putVarint(game.getTargetScore());
+        c.putVarint(game.getRules().code());
+        c.putVarint(game.getLegsPerSet());
+        c.putVarint(game.getSetsToWin());
+        int sides = game.getSideCount();
+        int teamSize = game.getPlayerCount() / sides;
+        c.putVarint(sides);
+        c.putVarint(teamSize);
+        // Seats interleave the sides, so side s's m-th player sits at m * sides + s.
+        for (int s = 0; s < sides; s++) {
+            for (int m = 0; m < teamSize; m++) c.putString(game.getPlayer(m * sides + s).getName());
+        }
+        game.writeState(c);
+        out.put(c.bytes, 0, c.pos);
+    }
+
+    /**
+     * Reads a match written by {@link #encode} into a new game.
+     *
+     * @throws IllegalArgumentException if the bytes are not a match of a supported version
+     */
+    public static Game decode(ByteBuffer in) {
+        Cursor c = CURSORS.get().forReading(in);
+        try {
+            int version = checkHeader(c);
+            int targetScore = c.getVarint();
+            Rules rules = readRules(c, version, targetScore);
+            int legsPerSet = c.getVarint();
+            int setsToWin = c.getVarint();
+            Player[][] teams = new Player[c.getVarint()][c.getVarint()];
+            for (Player[] team : teams) {
+                for (int m = 0; m < team.length; m++) team[m] = new Player(c.getString(), targetScore);
+            }
+            Game game = new Game(teams, rules, legsPerSet, setsToWin);
+            game.readState(c);
+            c.finishReading(in);
+            return game;
+        } catch (BufferUnderflowException | IndexOutOfBoundsException | NegativeArraySizeException e) {
+            throw new IllegalArgumentException("Truncated or corrupt match", e);
+        } finally {
+            c.release();
+        }
+    }
+
+    /**
+     * Restores a match written by {@link #encode} into an existing game with the same format
+     * and line-up, without allocating. Player names are not compared.
+     *
+     * @return false, leaving the game untouched, if the match is for a different format or line-up
+     * @throws IllegalArgumentException if the bytes are not a match of a supported version, or are cut
+     *         short, in which case the game may be partly restored
+     */
+    public static boolean decodeInto(ByteBuffer in, Game game) {
+        Cursor c = CURSORS.get().forReading(in);
+        try {
+            int version = checkHeader(c);
+            if (c.getVarint() != game.getTargetScore()
+                    || !sameRules(c, version, game.getRules())
+                    || c.getVarint() != game.getLegsPerSet()
+                    || c.getVarint() != game.getSetsToWin() || c.getVarint() != game.getSideCount()
+                    || c.getVarint() * game.getSideCount() != game.getPlayerCount()) {
+                return false;
+            }
+            for (int i = 0; i < game.getPlayerCount(); i++) c.skip(c.getVarint());
+            game.readState(c);
+            c.finishReading(in);
+            return true;
+        } catch (BufferUnderflowException | IndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Truncated or corrupt match", e);
+        } finally {
+            c.release();
+        }
+    }
+
+    /** @return the match's format version */
+    private static int checkHeader(Cursor c) {
+        int header = c.getInt();
+        if (header >>> 8 != MAGIC) throw new IllegalArgumentException("Not a match");
+        int version = header & 0xFF;
+        if (version < 1 || version > VERSION) throw new IllegalArgumentException("Unsupported match version " + version);
+        return version;
+    }
+
+    private static Rules readRules(Cursor c, int version, int targetScore) {
+        return version < FIRST_VERSION_WITH_RULES ? Rules.doubleOut(targetScore) : Rules.fromCode(targetScore, c.getVarint());
+    }
+
+    /** Checks the match's in and out rules against the game's by their code, without a lookup. */
+    private static boolean sameRules(Cursor c, int version, Rules rules) {
+        if (version < FIRST_VERSION_WITH_RULES) return rules.getIn() == Rules.In.STRAIGHT && rules.getOut() == Rules.Out.DOUBLE;
+        return c.getVarint() == rules.code();
+    }
+
+    // ---- throws ----
+
+    /**
+     * Packs a single dart into an event.
+     *
+     * @param seat the thrower's seat in the game
+     * @param dart the dart, encoded by {@link Dart}
+     */
+    public static int dartEvent(int seat, int dart) {
+        return seat << SEAT_SHIFT | dart << VALUE_SHIFT;
+    }
+
+    /**
+     * Packs a turn total into an event, with the same arguments as
+     * {@link Game#throwTotal(int, int, int)}.
+     */
+    public static int totalEvent(int seat, int total, int darts, int dartsAtDouble) {
+        return seat << SEAT_SHIFT | total << VALUE_SHIFT | (dartsAtDouble + 1) << AT_DOUBLE_SHIFT
+                | darts << DARTS_SHIFT | KIND_BIT;
+    }
+
+    /** Writes an event at the buffer's position, in at most three bytes for seats below 128. */
+    public static void writeEvent(ByteBuffer out, int event) {
+        while ((event & ~0x7F) != 0) {
+            out.put((byte) (event & 0x7F | 0x80));
+            event >>>= 7;
+        }
+        out.put((byte) event);
+    }
+
+    /**
+     * Reads the event at the buffer's position.
+     *
+     * @throws IllegalArgumentException if the bytes are not an event
+     */
+    public static int readEvent(ByteBuffer in) {
+        int event = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            byte b = in.get();
+            event |= (b & 0x7F) << shift;
+            if (b >= 0) return event;
+        }
+        throw new IllegalArgumentException("Malformed event");
+    }
+
+    /** @return the thrower's seat */
+    public static int seat(int event) { return event >>> SEAT_SHIFT; }
+
+    /** @return true for a turn total, false for a single dart */
+    public static boolean isTotal(int event) { return (event & KIND_BIT) != 0; }
+
+    /** @return the encoded dart, or the turn total */
+    public static int value(int event) { return (event >>> VALUE_SHIFT) & 0xFF; }
+
+    /** @return darts used for a total, 0 if left to the game */
+    public static int darts(int event) { return (event >>> DARTS_SHIFT) & 0x3; }
+
+    /** @return darts thrown at a double for a total, -1 if left to the game */
+    public static int dartsAtDouble(int event) { return ((event >>> AT_DOUBLE_SHIFT) & 0x7) - 1; }
+
+    /**
+     * Applies an event to the game. The game must be waiting for the event's thrower.
+     *
+     * @return the game's result message
+     */
+    public static ThrowResult apply(int event, Game game) {
+        return isTotal(event)
+                ? game.throwTotal(value(event), darts(event), dartsAtDouble(event))
+                : game.throwDart(value(event));
+    }
+
+    /**
+     * A position in a byte array that {@link Game} and {@link PlayerStats} write their state
+     * to and read it from. Writing grows the cursor's own scratch array as needed; reading
+     * works on the source buffer's array when it has one.
+     */
+    static final class Cursor {
+        private byte[] scratch = new byte[1024];
+        byte[] bytes = scratch;
+        int pos;
+        private int start;
+        private int limit;
+
+        Cursor forWriting() {
+            bytes = scratch;
+            pos = 0;
+            limit = scratch.length;
+            return this;
+        }
+
+        Cursor forReading(ByteBuffer in) {
+            if (in.hasArray()) {
+                bytes = in.array();
+                start = in.arrayOffset() + in.position();
+                limit = in.arrayOffset() + in.limit();
+            } else {
+                if (scratch.length < in.remaining()) scratch = new byte[in.remaining()];
+                in.get(in.position(), scratch, 0, in.remaining());
+                bytes = scratch;
+                start = 0;
+                limit = in.remaining();
+            }
+            pos = start;
+            return this;
+        }
+
+        /** Moves the buffer past the bytes read. */
+        void finishReading(ByteBuffer in) {
+            in.position(in.position() + pos - start);
+        }
+
+        /** Drops any reference to the caller's array. */
+        void release() {
+            bytes = scratch;
+        }
+
+        private void ensure(int n) {
+            if (pos + n > limit) {
+                scratch = bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, pos + n));
+                limit = bytes.length;
+            }
+        }
+
+        private byte next() {
+            if (pos >= limit) throw new BufferUnderflowException();
+            return bytes[pos++];
+        }
+
+        void putInt(int value) {
+            ensure(4);
+            bytes[pos++] = (byte) (value >>> 24);
+            bytes[pos++] = (byte) (value >>> 16);
+            bytes[pos++] = (byte) (value >>> 8);
+            bytes[pos++] = (byte) value;
+        }
+
+        int getInt() {
+            return (next() & 0xFF) << 24 | (next() & 0xFF) << 16 | (next() & 0xFF) << 8 | next() & 0xFF;
+        }
+
+        /** Writes an int as an unsigned varint; negative values take five bytes. */
+        void putVarint(int value) {
+            ensure(5);
+            while ((value & ~0x7F) != 0) {
+                bytes[pos++] = (byte) (value & 0x7F | 0x80);
+                value >>>= 7;
+            }
+            bytes[pos++] = (byte) value;
+        }
+
+        int getVarint() {
+            int value = 0;
+            for (int shift = 0; shift < 35; shift += 7) {
+                byte b = next();
+                value |= (b & 0x7F) << shift;
+                if (b >= 0) return value;
+            }
+            throw new IllegalArgumentException("Malformed varint");
+        }
+
+        /** Writes the first {@code count} values as varints, keeping the position in a local. */
+        void putVarints(int[] values, int count) {
+            ensure(5 * count);
+            byte[] b = bytes;
+            int p = pos;
+            for (int i = 0; i < count; i++) {
+                int value = values[i];
+                while ((value & ~0x7F) != 0) {
+                    b[p++] = (byte) (value & 0x7F | 0x80);
+                    value >>>= 7;
+                }
+                b[p++] = (byte) value;
+            }
+            pos = p;
+        }
+
+        /** Reads {@code count} varints into the start of {@code values}. */
+        void getVarints(int[] values, int count) {
+            byte[] b = bytes;
+            int p = pos;
+            for (int i = 0; i < count; i++) {
+                int value = 0;
+                for (int shift = 0; ; shift += 7) {
+                    if (p >= limit) throw new BufferUnderflowException();
+                    if (shift == 35) throw new IllegalArgumentException("Malformed varint");
+                    byte next = b[p++];
+                    value |= (next & 0x7F) << shift;
+                    if (next >= 0) break;
+                }
+                values[i] = value;
+            }
+            pos = p;
+        }
+
+        void putVarlong(long value) {
+            ensure(10);
+            while ((value & ~0x7FL) != 0) {
+                bytes[pos++] = (byte) (value & 0x7F | 0x80);
+                value >>>= 7;
+            }
+            bytes[pos++] = (byte) value;
+        }
+
+        long getVarlong() {
+            long value = 0;
+            for (int shift = 0; shift < 70; shift += 7) {
+                byte b = next();
+                value |= (long) (b & 0x7F) << shift;
+                if (b >= 0) return value;
+            }
+            throw new IllegalArgumentException("Malformed varint");
+        }
+
+        void skip(int n) {
+            if (n < 0 || n > limit - pos) throw new BufferUnderflowException();
+            pos += n;
+        }
+
+        /** Writes a string as its UTF-8 length and bytes, straight from its chars. */
+        void putString(String s) {
+            int length = 0;
+            for (int i = 0; i < s.length(); i++) {
+                char c = s.charAt(i);
+                length += c < 0x80 ? 1 : c < 0x800 ? 2 : Character.isSurrogate(c) ? 2 : 3;
+            }
+            putVarint(length);
+            ensure(length);
+            for (int i = 0; i < s.length(); i++) {
+                char c = s.charAt(i);
+                if (c < 0x80) {
+                    bytes[pos++] = (byte) c;
+                } else if (c < 0x800) {
+                    bytes[pos++] = (byte) (0xC0 | c >> 6);
+                    bytes[pos++] = (byte) (0x80 | c & 0x3F);
+                } else if (Character.isHighSurrogate(c) && i + 1 < s.length() && Character.isLowSurrogate(s.charAt(i + 1))) {
+                    int cp = Character.toCodePoint(c, s.charAt(++i));
+                    bytes[pos++] = (byte) (0xF0 | cp >> 18);
+                    bytes[pos++] = (byte) (0x80 | cp >> 12 & 0x3F);
+                    bytes[pos++] = (byte) (0x80 | cp >> 6 & 0x3F);
+                    bytes[pos++] = (byte) (0x80 | cp & 0x3F);
+                } else if (Character.isSurrogate(c)) {
+                    bytes[pos++] = '?';
+                    bytes[pos++] = '?';
+                } else {
+                    bytes[pos++] = (byte) (0xE0 | c >> 12);
+                    bytes[pos++] = (byte) (0x80 | c >> 6 & 0x3F);
+                    bytes[pos++] = (byte) (0x80 | c & 0x3F);
+                }
+            }
+        }
+
+        String getString() {
+            int length = getVarint();
+            int from = pos;
+            skip(length);
+            return new String(bytes, from, length, StandardCharsets.UTF_8);
+        }
+    }
+}
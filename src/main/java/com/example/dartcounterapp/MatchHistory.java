@@ -0,0 +1,93 @@
+package com.example.dartcounterapp;
+
+import java.util.Arrays;
+
+/**
+ * Every throw a {@link Game} has taken, as {@link MatchCodec} events, with the match encoded
+ * at the start of the history and at the end of every leg. Any earlier point is rebuilt by
+ * restoring the checkpoint before it and replaying the throws since, which is never more than
+ * one leg's worth, so stepping back costs the same early or late in a long match. A throw is
+ * four bytes and a checkpoint a few hundred, so a whole match's history stays small.
+ *
+ * <p>Throws that have been undone are kept, to be redone, until a different throw is taken.
+ * A {@link Game} takes no throws once its match is won, so the history is bounded by one
+ * match.</p>
+ */
+final class MatchHistory {
+
+    private int[] events = new int[256];
+    private int position;
+    private int end;
+
+    private int[] checkpointAt = new int[16];
+    private byte[][] checkpoints = new byte[16][];
+    private int checkpointCount;
+
+    /** @return number of throws currently applied */
+    int position() { return position; }
+
+    boolean canUndo() { return position > 0; }
+
+    boolean canRedo() { return position < end; }
+
+    /** @return the {@code i}-th throw, encoded by {@link MatchCodec} */
+    int event(int i) { return events[i]; }
+
+    boolean hasCheckpoint() { return checkpointCount > 0; }
+
+    /**
+     * Records a throw taken at the current position. Taking the throw that would be redone
+     * keeps the rest of the redo list; any other throw discards it.
+     */
+    void record(int event) {
+        if (position < end && events[position] == event) {
+            position++;
+            return;
+        }
+        dropCheckpointsAfter(position);
+        if (position == events.length) events = Arrays.copyOf(events, position * 2);
+        events[position++] = event;
+        end = position;
+    }
+
+    /** Stores the encoded match as it stands at the current position. */
+    void checkpoint(byte[] state) {
+        dropCheckpointsAfter(position - 1);
+        if (checkpointCount == checkpoints.length) {
+            checkpointAt = Arrays.copyOf(checkpointAt, checkpointCount * 2);
+            checkpoints = Arrays.copyOf(checkpoints, checkpointCount * 2);
+        }
+        checkpointAt[checkpointCount] = position;
+        checkpoints[checkpointCount++] = state;
+    }
+
+    /** @return the index of the last checkpoint at or before the given position */
+    int checkpointBefore(int target) {
+        int k = checkpointCount - 1;
+        while (k > 0 && checkpointAt[k] > target) k--;
+        return k;
+    }
+
+    int checkpointPosition(int k) { return checkpointAt[k]; }
+
+    byte[] checkpointState(int k) { return checkpoints[k]; }
+
+    /** Moves to an earlier position, keeping the throws after it for redo. */
+    void moveTo(int target) {
+        position = target;
+    }
+
+    /** Forgets everything, for a game whose state has been replaced wholesale. */
+    void clear() {
+        position = 0;
+        end = 0;
+        Arrays.fill(checkpoints, 0, checkpointCount, null);
+        checkpointCount = 0;
+    }
+
+    private void dropCheckpointsAfter(int at) {
+        while (checkpointCount > 0 && checkpointAt[checkpointCount - 1] > at) {
+            checkpoints[--checkpointCount] = null;
+        }
+    }
+}
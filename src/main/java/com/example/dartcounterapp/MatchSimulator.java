@@ -0,0 +1,129 @@
+package com.example.dartcounterapp;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Headless match simulator that plays full matches through {@link Game} using each
+ * player's {@link AccuracyModel}. Work is split across a fork-join pool, each task
+ * drawing from its own {@link SplittableRandom}, and the per-task results are merged
+ * at the end. Nothing here touches JavaFX.
+ */
+public final class MatchSimulator {
+
+    /** Matches played by one leaf task before it stops splitting. */
+    private static final int LEAF_MATCHES = 512;
+
+    private final AccuracyModel player1Model;
+    private final AccuracyModel player2Model;
+    private final int targetScore;
+    private final int legsPerSet;
+    private final int setsToWin;
+
+    /**
+     * @param player1Model accuracy of the player who throws first in the first set
+     * @param player2Model accuracy of the other player
+     * @param targetScore starting score of each leg (e.g. 501)
+     * @param legsPerSet legs needed to win a set
+     * @param setsToWin sets needed to win the match
+     */
+    public MatchSimulator(AccuracyModel player1Model, AccuracyModel player2Model,
+                          int targetScore, int legsPerSet, int setsToWin) {
+        this.player1Model = player1Model;
+        this.player2Model = player2Model;
+        this.targetScore = targetScore;
+        this.legsPerSet = legsPerSet;
+        this.setsToWin = setsToWin;
+    }
+
+    /** Simulates matches on the common fork-join pool. */
+    public SimulationResult run(long matches, long seed) {
+        return run(matches, seed, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Simulates the given number of matches.
+     *
+     * @param matches number of matches to play
+     * @param seed seed for the root random source, so runs are repeatable
+     * @param pool the pool to run on
+     * @return the merged result, including throughput
+     */
+    public SimulationResult run(long matches, long seed, ForkJoinPool pool) {
+        long start = System.nanoTime();
+        SimulationResult result = pool.invoke(new SimulationTask(matches, new SplittableRandom(seed)));
+        result.setElapsedNanos(System.nanoTime() - start);
+        return result;
+    }
+
+    /** Plays one match to completion and records it. */
+    private void playMatch(SplittableRandom rng, SimulationResult result) {
+        Player p1 = new Player("Player 1", targetScore);
+        Player p2 = new Player("Player 2", targetScore);
+        Game game = new Game(p1, p2, targetScore, legsPerSet, setsToWin);
+
+        int p1Legs = 0;
+        int p2Legs = 0;
+        int darts = 0;
+
+        while (game.getMatchWinner() == null) {
+            Player thrower = game.getCurrentPlayer();
+            AccuracyModel model = (thrower == p1) ? player1Model : player2Model;
+            int aim = CheckoutTable.aimFor(thrower.getCurrentScore(), game.getDartsLeft(thrower));
+            int legsBefore = game.getLegsPlayed();
+
+            game.throwDart(model.throwAt(aim, rng));
+            darts++;
+
+            if (game.getLegsPlayed() != legsBefore) {
+                if (thrower == p1) p1Legs++; else p2Legs++;
+            }
+        }
+
+        int winner = (game.getMatchWinner() == p1) ? 0 : 1;
+        result.record(winner, p1Legs, p2Legs, p1.getThreeDartAverage(), p2.getThreeDartAverage(), darts);
+    }
+
+    /** Splits a block of matches in half until it is small enough to play directly. */
+    @SuppressWarnings("serial") // tasks are forked, never serialized
+    private final class SimulationTask extends RecursiveTask<SimulationResult> {
+
+        private final long matches;
+        private final SplittableRandom rng;
+
+        SimulationTask(long matches, SplittableRandom rng) {
+            this.matches = matches;
+            this.rng = rng;
+        }
+
+        @Override
+        protected SimulationResult compute() {
+            if (matches <= LEAF_MATCHES) {
+                SimulationResult result = new SimulationResult();
+                for (long i = 0; i < matches; i++) playMatch(rng, result);
+                return result;
+            }
+            long half = matches / 2;
+            SimulationTask left = new SimulationTask(half, rng.split());
+            SimulationTask right = new SimulationTask(matches - half, rng.split());
+            left.fork();
+            return right.compute().merge(left.join());
+        }
+    }
+
+    /**
+     * Runs a simulation from the command line and prints the report.
+     * Arguments: [matches] [player1 skill 0-1] [player2 skill 0-1] [seed]
+     */
+    public static void main(String[] args) {
+        long matches = args.length > 0 ? Long.parseLong(args[0]) : 100_000;
+        double skill1 = args.length > 1 ? Double.parseDouble(args[1]) : 0.5;
+        double skill2 = args.length > 2 ? Double.parseDouble(args[2]) : 0.5;
+        long seed = args.length > 3 ? Long.parseLong(args[3]) : System.nanoTime();
+
+        MatchSimulator simulator = new MatchSimulator(
+                AccuracyModel.forSkill(skill1), AccuracyModel.forSkill(skill2), 501, 3, 3);
+        System.out.println(simulator.run(matches, seed));
+    }
+}
@@ -0,0 +1,161 @@
+package com.example.dartcounterapp;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+/**
+ * Compact binary snapshots of a whole {@link Game}, taken at the end of every leg, that let
+ * a match resume without replaying its full {@link ThrowJournal}. Resuming loads the latest
+ * snapshot and replays only the throws journalled after it, so startup time depends on the
+ * length of one leg rather than of the match.
+ *
+ * <p>The game state is encoded into a buffer on the thread driving the game, which is a few
+ * hundred bytes; checksumming and writing the file happen on a background thread. Each
+ * snapshot replaces the previous one with an atomic rename, so a crash mid-write leaves the
+ * older snapshot intact.</p>
+ *
+ * <p>Layout: a 20 byte header (magic, version, journal match id, journal records covered,
+ * CRC32 of the match) followed by the match in the {@link MatchCodec} format.</p>
+ */
+public final class MatchSnapshots implements ThrowListener, Closeable {
+
+    private static final int MAGIC = 0x44435331; // "DCS1"
+    private static final short VERSION = 2;
+    private static final int HEADER_SIZE = 20;
+
+    private final Path path;
+    private final Path tempPath;
+    private final ThrowJournal journal;
+    private final ExecutorService writer;
+
+    /** Journal records covered by the snapshot on disk or being written; game thread only. */
+    private int covered;
+
+    private MatchSnapshots(Path path, ThrowJournal journal) {
+        this.path = path;
+        this.tempPath = path.resolveSibling(path.getFileName() + ".tmp");
+        this.journal = journal;
+        this.writer = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "match-snapshot-writer");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * Opens the snapshot store for a journalled match. Attach the journal to the game before
+     * this store, so that each snapshot covers the throw that won the leg.
+     *
+     * @param path the snapshot file
+     * @param journal the journal the snapshots are taken against
+     * @throws IOException if the snapshot directory cannot be created
+     */
+    public static MatchSnapshots open(Path path, ThrowJournal journal) throws IOException {
+        if (path.getParent() != null) Files.createDirectories(path.getParent());
+        return new MatchSnapshots(path, journal);
+    }
+
+    /**
+     * Rebuilds a freshly created game from the latest usable snapshot plus the journal's tail,
+     * or from the whole journal when there is no snapshot for this match and line-up.
+     *
+     * @param game the game to rebuild, with neither the journal nor this store attached yet
+     * @return number of throws replayed from the journal
+     * @throws IOException if an existing snapshot cannot be read
+     */
+    public int resume(Game game) throws IOException {
+        byte[] bytes;
+        try {
+            bytes = Files.readAllBytes(path);
+        } catch (NoSuchFileException e) {
+            return journal.replay(game);
+        }
+
+        ByteBuffer in = ByteBuffer.wrap(bytes);
+        if (bytes.length < HEADER_SIZE || in.getInt() != MAGIC || in.getShort() != VERSION) {
+            return journal.replay(game);
+        }
+        in.getShort();
+        int matchId = in.getInt();
+        int covered = in.getInt();
+        int crc = in.getInt();
+
+        CRC32 check = new CRC32();
+        check.update(bytes, HEADER_SIZE, bytes.length - HEADER_SIZE);
+        if (matchId != journal.getMatchId() || covered > journal.size() || (int) check.getValue() != crc
+                || !MatchCodec.decodeInto(in, game)) {
+            return journal.replay(game);
+        }
+        this.covered = covered;
+        return journal.replay(game, covered);
+    }
+
+    @Override
+    public void onDart(Game game, Player thrower, int dart) { }
+
+    @Override
+    public void onTotal(Game game, Player thrower, int total, int darts, int dartsAtDouble) { }
+
+    /** Copies the game's state and hands it to the background writer. */
+    @Override
+    public void onLegWon(Game game, Player winner) {
+        ByteBuffer state = ByteBuffer.allocate(HEADER_SIZE + MatchCodec.maxSize(game));
+        state.putInt(MAGIC).putShort(VERSION).putShort((short) 0)
+                .putInt(journal.getMatchId()).putInt(journal.size()).putInt(0);
+        MatchCodec.encode(game, state);
+        covered = journal.size();
+        byte[] bytes = Arrays.copyOf(state.array(), state.position());
+        writer.execute(() -> write(bytes));
+    }
+
+    /**
+     * Deletes the snapshot once the journal has dropped a throw it covers, so that a resume
+     * can't restore a taken-back throw. The next leg won writes a new one.
+     */
+    @Override
+    public void onUndo(Game game) {
+        if (journal.size() >= covered) return;
+        covered = 0;
+        writer.execute(() -> {
+            try {
+                Files.deleteIfExists(path);
+            } catch (IOException e) {
+                System.err.println("Could not delete match snapshot: " + e.getMessage());
+            }
+        });
+    }
+
+    private void write(byte[] bytes) {
+        CRC32 crc = new CRC32();
+        crc.update(bytes, HEADER_SIZE, bytes.length - HEADER_SIZE);
+        ByteBuffer.wrap(bytes).putInt(HEADER_SIZE - 4, (int) crc.getValue());
+        try {
+            journal.flush();
+            Files.write(tempPath, bytes);
+            Files.move(tempPath, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            System.err.println("Could not write match snapshot: " + e.getMessage());
+        }
+    }
+
+    /** Waits for any pending snapshot to be written. */
+    @Override
+    public void close() {
+        writer.shutdown();
+        try {
+            writer.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -3,18 +3,19 @@ package com.example.dartcounterapp;
 /**
  * Represents a player in a darts game.
  * Tracks score, legs, sets, turn state, and performance averages.
+ *
+ * <p>Score, legs and sets belong to the player's side and live in the game's
+ * {@link ScoreSheet}; teammates seated at the same side share them. A player not yet
+ * seated in a game has a one-side sheet of its own.</p>
  */
 public class Player {
 
     private final String name;
-    private int currentScore;
-    private int turnStartScore;
-    private int lastTurnScored;
-    private int legsWon;
-    private int setsWon;
+    private ScoreSheet sheet;
+    private int side;
+    private int seat;
 
-    private int totalDartsThrown = 0;
-    private int totalPointsScored = 0;
+    private final PlayerStats stats = new PlayerStats();
 
     /**
      * Constructs a player with a name and starting score.
@@ -24,58 +25,94 @@ public class Player {
      */
     public Player(String name, int startScore) {
         this.name = name;
-        this.currentScore = startScore;
-        this.turnStartScore = startScore;
-        this.lastTurnScored = 0;
+        this.sheet = new ScoreSheet(1, startScore);
     }
 
+    /**
+     * Seats the player in a game.
+     *
+     * @param sheet the game's score sheet
+     * @param side the player's side on the sheet
+     * @param seat the player's position in the game's throwing order
+     */
+    void seat(ScoreSheet sheet, int side, int seat) {
+        this.sheet = sheet;
+        this.side = side;
+        this.seat = seat;
+    }
+
+    /** @return position in the throwing order of the game the player is seated in */
+    int seat() { return seat; }
+
     /** @return the player's name */
     public String getName() { return name; }
 
+    /** @return the index of the player's side (the player alone, or their team) in its game */
+    public int getSide() { return side; }
+
     /** @return the current remaining score */
-    public int getCurrentScore() { return currentScore; }
+    public int getCurrentScore() { return sheet.score[side]; }
 
     /** @return the score at the start of the current turn */
-    public int getTurnStartScore() { return turnStartScore; }
+    public int getTurnStartScore() { return sheet.turnStart[side]; }
 
     /** @return the score achieved in the last turn */
-    public int getLastTurnScored() { return lastTurnScored; }
+    public int getLastTurnScored() { return sheet.lastTurn[side]; }
 
     /** @return number of legs won */
-    public int getLegsWon() { return legsWon; }
+    public int getLegsWon() { return sheet.legs[side]; }
 
     /** @return number of sets won */
-    public int getSetsWon() { return setsWon; }
+    public int getSetsWon() { return sheet.sets[side]; }
+
+    /** @return the player's running statistics */
+    public PlayerStats getStats() { return stats; }
 
     /** Sets the current score to the given value. */
-    public void setCurrentScore(int score) { this.currentScore = score; }
+    public void setCurrentScore(int score) { sheet.score[side] = score; }
 
     /** Resets the leg count to zero (used when starting a new set). */
-    public void resetLegs() { this.legsWon = 0; }
+    public void resetLegs() { sheet.legs[side] = 0; }
 
     /** Marks the start of a player's turn by recording their current score. */
     public void startTurn() {
-        this.turnStartScore = this.currentScore;
+        sheet.turnStart[side] = sheet.score[side];
+    }
+
+    /**
+     * Records a single dart before it is applied, for double and checkout statistics.
+     *
+     * @param rules the rules the leg is played to, which say which double, if any, was the target
+     * @param remainingBefore the score before the dart
+     * @param dart the dart hit, encoded by {@link Dart}
+     */
+    public void recordDart(Rules rules, int remainingBefore, int dart) {
+        stats.recordDart(rules, remainingBefore, dart);
+    }
+
+    /**
+     * Records darts thrown at a finishing double in a turn entered as a total.
+     *
+     * @param attempts darts thrown at a double
+     * @param hit whether the turn checked out
+     */
+    public void recordDoubleAttempts(int attempts, boolean hit) {
+        stats.recordDoubleAttempts(attempts, hit);
     }
 
     /**
      * Ends a player's turn and updates scoring statistics.
      *
-     * @param dartsThrownThisTurn number of darts thrown this turn
+     * @param dartsThrownThisTurn number of darts counted for this turn (3 on a bust,
+     *                            the darts actually used on a finish)
      * @param bust whether the turn ended in a bust
      */
     public void endTurn(int dartsThrownThisTurn, boolean bust) {
-        int scored = 0;
-
-        if (!bust) {
-            scored = turnStartScore - currentScore;
-            lastTurnScored = scored;
-        } else {
-            lastTurnScored = 0;
-        }
+        ScoreSheet s = sheet;
+        int scored = bust ? 0 : s.turnStart[side] - s.score[side];
+        s.lastTurn[side] = scored;
 
-        totalDartsThrown += 3; // always count 3 darts for averaging consistency
-        totalPointsScored += scored;
+        stats.recordTurn(scored, dartsThrownThisTurn, bust, !bust && s.score[side] == 0);
     }
 
     /**
@@ -84,16 +121,15 @@ public class Player {
      * @param targetScore the score to reset to (e.g., 501)
      */
     public void resetForNewLeg(int targetScore) {
-        this.currentScore = targetScore;
-        this.turnStartScore = targetScore;
-        this.lastTurnScored = 0;
+        sheet.resetLeg(side, targetScore);
+        stats.startLeg();
     }
 
     /** Increments the number of legs won by one. */
-    public void addLeg() { legsWon++; }
+    public void addLeg() { sheet.legs[side]++; }
 
     /** Increments the number of sets won by one. */
-    public void addSet() { setsWon++; }
+    public void addSet() { sheet.sets[side]++; }
 
     /**
      * Calculates the player's three-dart average.
@@ -101,8 +137,6 @@ public class Player {
      * @return average score per three darts
      */
     public double getThreeDartAverage() {
-        if (totalDartsThrown == 0) return 0.0;
-        double avgPerDart = (double) totalPointsScored / totalDartsThrown;
-        return avgPerDart * 3.0;
+        return stats.getThreeDartAverage();
     }
 }
\ No newline at end of file
@@ -0,0 +1,283 @@
+package com.example.dartcounterapp;
+
+import java.util.Arrays;
+
+/**
+ * Running statistics for one player, kept in primitive counters and arrays.
+ * Every update is O(1) and every read is a field or array access, so the scoreboard
+ * and reports can query it after each throw without allocating or recomputing.
+ */
+public final class PlayerStats {
+
+    /** Highest score possible in one turn. */
+    public static final int MAX_TURN_SCORE = 180;
+
+    private static final int BULL_SEGMENT = 25;
+
+    private long totalDarts;
+    private long totalPoints;
+    private long first9Darts;
+    private long first9Points;
+
+    private final int[] turnScoreCounts = new int[MAX_TURN_SCORE + 1];
+    private int turns;
+    private int busts;
+    private int tonPlus;
+    private int tonFortyPlus;
+    private int oneEighties;
+
+    private final int[] doubleAttempts = new int[BULL_SEGMENT + 1];
+    private final int[] doubleHits = new int[BULL_SEGMENT + 1];
+    private int checkoutAttempts;
+    private int checkoutHits;
+    private int checkouts;
+    private int highestFinish;
+
+    private int[] legDarts = new int[16];
+    private int legsWon;
+    private int bestLegDarts;
+
+    private int dartsThisLeg;
+    private int turnsThisLeg;
+
+    /**
+     * Records a single dart. Counts an attempt at a double whenever the remaining score
+     * before the dart could be finished with that one double under the leg's rules.
+     *
+     * @param rules the rules the leg is played to
+     * @param remainingBefore the player's score before the dart
+     * @param dart the dart hit, encoded by {@link Dart}
+     */
+    void recordDart(Rules rules, int remainingBefore, int dart) {
+        int target = rules.finishingDouble(remainingBefore);
+        if (target == 0) return;
+        doubleAttempts[target]++;
+        checkoutAttempts++;
+        if (Dart.isDouble(dart) && Dart.segment(dart) == target) {
+            doubleHits[target]++;
+            checkoutHits++;
+        }
+    }
+
+    /**
+     * Records darts thrown at a finishing double when only the turn total is known,
+     * so they count towards the checkout rate but not towards any particular double.
+     *
+     * @param attempts darts thrown at a double
+     * @param hit whether the last of them checked out
+     */
+    void recordDoubleAttempts(int attempts, boolean hit) {
+        checkoutAttempts += attempts;
+        if (hit) checkoutHits++;
+    }
+
+    /**
+     * Records a completed turn.
+     *
+     * @param scored points scored (0 on a bust)
+     * @param darts darts counted for the turn
+     * @param bust whether the turn was bust
+     * @param finished whether the turn checked out
+     */
+    void recordTurn(int scored, int darts, boolean bust, boolean finished) {
+        totalDarts += darts;
+        totalPoints += scored;
+        dartsThisLeg += darts;
+
+        if (turnsThisLeg < 3) {
+            first9Darts += darts;
+            first9Points += scored;
+        }
+        turnsThisLeg++;
+
+        turns++;
+        turnScoreCounts[Math.min(scored, MAX_TURN_SCORE)]++;
+        if (bust) busts++;
+        if (scored == MAX_TURN_SCORE) oneEighties++;
+        else if (scored >= 140) tonFortyPlus++;
+        else if (scored >= 100) tonPlus++;
+
+        if (finished) {
+            checkouts++;
+            if (scored > highestFinish) highestFinish = scored;
+            if (legsWon == legDarts.length) legDarts = Arrays.copyOf(legDarts, legsWon * 2);
+            legDarts[legsWon++] = dartsThisLeg;
+            if (bestLegDarts == 0 || dartsThisLeg < bestLegDarts) bestLegDarts = dartsThisLeg;
+        }
+    }
+
+    /** Clears the per-leg counters at the start of a new leg. */
+    void startLeg() {
+        dartsThisLeg = 0;
+        turnsThisLeg = 0;
+    }
+
+    /**
+     * Writes every counter in the {@link MatchCodec} format.
+     */
+    void writeTo(MatchCodec.Cursor out) {
+        out.putVarlong(totalDarts);
+        out.putVarlong(totalPoints);
+        out.putVarlong(first9Darts);
+        out.putVarlong(first9Points);
+        writeTable(out, turnScoreCounts, null);
+        out.putVarint(turns);
+        out.putVarint(busts);
+        out.putVarint(tonPlus);
+        out.putVarint(tonFortyPlus);
+        out.putVarint(oneEighties);
+        writeTable(out, doubleAttempts, doubleHits);
+        out.putVarint(checkoutAttempts);
+        out.putVarint(checkoutHits);
+        out.putVarint(checkouts);
+        out.putVarint(highestFinish);
+        out.putVarint(legsWon);
+        out.putVarints(legDarts, legsWon);
+        out.putVarint(bestLegDarts);
+        out.putVarint(dartsThisLeg);
+        out.putVarint(turnsThisLeg);
+    }
+
+    /**
+     * Restores every counter from a buffer filled by {@link #writeTo}.
+     *
+     * @throws IllegalArgumentException if a table index is out of range
+     */
+    void readFrom(MatchCodec.Cursor in) {
+        totalDarts = in.getVarlong();
+        totalPoints = in.getVarlong();
+        first9Darts = in.getVarlong();
+        first9Points = in.getVarlong();
+        readTable(in, turnScoreCounts, null);
+        turns = in.getVarint();
+        busts = in.getVarint();
+        tonPlus = in.getVarint();
+        tonFortyPlus = in.getVarint();
+        oneEighties = in.getVarint();
+        readTable(in, doubleAttempts, doubleHits);
+        checkoutAttempts = in.getVarint();
+        checkoutHits = in.getVarint();
+        checkouts = in.getVarint();
+        highestFinish = in.getVarint();
+        legsWon = in.getVarint();
+        if (legsWon > legDarts.length) legDarts = new int[legsWon * 2];
+        in.getVarints(legDarts, legsWon);
+        bestLegDarts = in.getVarint();
+        dartsThisLeg = in.getVarint();
+        turnsThisLeg = in.getVarint();
+    }
+
+    /**
+     * Writes a table of counts, and the matching entries of {@code values} if given. A table
+     * that is mostly zeros stores only its non-zero entries, each as a gap from the last one;
+     * a fuller one stores every entry, which is smaller and avoids a branch per entry.
+     */
+    private static void writeTable(MatchCodec.Cursor out, int[] keys, int[] values) {
+        int nonZero = 0;
+        for (int count : keys) nonZero += count != 0 ? 1 : 0;
+        int width = values == null ? 1 : 2;
+        if (nonZero * (width + 1) >= keys.length * width) {
+            out.putVarint(nonZero << 1 | 1);
+            out.putVarints(keys, keys.length);
+            if (values != null) out.putVarints(values, values.length);
+            return;
+        }
+        out.putVarint(nonZero << 1);
+        for (int i = 0, last = -1; i < keys.length; i++) {
+            if (keys[i] == 0) continue;
+            out.putVarint(i - last - 1);
+            out.putVarint(keys[i]);
+            if (values != null) out.putVarint(values[i]);
+            last = i;
+        }
+    }
+
+    private static void readTable(MatchCodec.Cursor in, int[] keys, int[] values) {
+        int header = in.getVarint();
+        if ((header & 1) != 0) {
+            in.getVarints(keys, keys.length);
+            if (values != null) in.getVarints(values, values.length);
+            return;
+        }
+        Arrays.fill(keys, 0);
+        if (values != null) Arrays.fill(values, 0);
+        for (int n = header >>> 1, i = -1; n > 0; n--) {
+            i += in.getVarint() + 1;
+            if (i < 0 || i >= keys.length) throw new IllegalArgumentException("Statistics table index " + i);
+            keys[i] = in.getVarint();
+            if (values != null) values[i] = in.getVarint();
+        }
+    }
+
+    /** @return an upper bound on the bytes {@link #writeTo} writes for the current counters */
+    int serializedSize() {
+        // A table never takes more varints than its dense form.
+        int tables = 1 + turnScoreCounts.length + 1 + 2 * doubleAttempts.length;
+        return 4 * 10 + (tables + 5 + 4 + 1 + legsWon + 3) * 5;
+    }
+
+    /** @return average points per three darts across the match */
+    public double getThreeDartAverage() {
+        return totalDarts == 0 ? 0.0 : 3.0 * totalPoints / totalDarts;
+    }
+
+    /** @return average points per three darts over the first nine darts of each leg */
+    public double getFirst9Average() {
+        return first9Darts == 0 ? 0.0 : 3.0 * first9Points / first9Darts;
+    }
+
+    public long getTotalDarts() { return totalDarts; }
+    public long getTotalPoints() { return totalPoints; }
+    public int getTurns() { return turns; }
+    public int getBusts() { return busts; }
+
+    /** @return number of turns that scored exactly {@code score} (0 to 180; busts count as 0) */
+    public int getTurnScoreCount(int score) { return turnScoreCounts[score]; }
+
+    /** @return turns scoring 100 to 139 */
+    public int getTonPlus() { return tonPlus; }
+
+    /** @return turns scoring 140 to 179 */
+    public int getTonFortyPlus() { return tonFortyPlus; }
+
+    /** @return turns scoring 180 */
+    public int getOneEighties() { return oneEighties; }
+
+    /** @return darts thrown at the given double (1-20, or 25 for the bull) */
+    public int getDoubleAttempts(int segment) { return doubleAttempts[segment]; }
+
+    /** @return checkouts made on the given double (1-20, or 25 for the bull) */
+    public int getDoubleHits(int segment) { return doubleHits[segment]; }
+
+    /** @return total darts thrown at a finishing double */
+    public int getCheckoutAttempts() { return checkoutAttempts; }
+
+    /** @return number of legs checked out */
+    public int getCheckouts() { return checkouts; }
+
+    /** @return darts that hit the finishing double */
+    public int getCheckoutHits() { return checkoutHits; }
+
+    /** @return hits as a share of darts at a finishing double, between 0 and 1 */
+    public double getCheckoutRate() {
+        return checkoutAttempts == 0 ? 0.0 : (double) checkoutHits / checkoutAttempts;
+    }
+
+    /** @return the highest checkout, or 0 if none */
+    public int getHighestFinish() { return highestFinish; }
+
+    /** @return number of legs won */
+    public int getLegsWon() { return legsWon; }
+
+    /** @return darts used to win the {@code i}-th leg won, counting from 0 */
+    public int getLegDarts(int i) { return legDarts[i]; }
+
+    /** @return fewest darts used to win a leg, or 0 if none won yet */
+    public int getBestLegDarts() { return bestLegDarts; }
+
+    /** @return darts thrown so far in the current leg */
+    public int getDartsThisLeg() { return dartsThisLeg; }
+
+    /** @return turns completed so far in the current leg */
+    public int getTurnsThisLeg() { return turnsThisLeg; }
+}
@@ -0,0 +1,158 @@
+package com.example.dartcounterapp;
+
+import javafx.animation.FadeTransition;
+import javafx.geometry.Pos;
+import javafx.scene.Node;
+import javafx.scene.control.Label;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.VBox;
+import javafx.scene.paint.Color;
+import javafx.util.Duration;
+
+/**
+ * The scoreboard panel for one side (a player or a team), together with the values last
+ * rendered into it. The panel's labels are built in code, so the scoreboard can show any
+ * number of sides. {@link #render} compares the side's current state against that snapshot
+ * and only touches the labels whose values changed, so an unchanged side costs a few int compares.
+ */
+final class PlayerView {
+
+    private static final String ACTIVE_NAME_STYLE =
+            "-fx-font-size: 36px; -fx-font-weight: bold; -fx-text-fill: lime;";
+    private static final String INACTIVE_NAME_STYLE =
+            "-fx-font-size: 36px; -fx-font-weight: normal; -fx-text-fill: white;";
+    private static final Color ACTIVE_CHECKOUT = Color.LIMEGREEN;
+    private static final Color WAITING_CHECKOUT = Color.web("#00bfff");
+    private static final Duration FADE_DURATION = Duration.seconds(0.5);
+
+    private final Player[] members;
+    private final VBox node;
+    private final Label nameLabel;
+    private final Label scoreLabel;
+    private final Label prevScoreLabel;
+    private final Label avgLabel;
+    private final Label legsLabel;
+    private final Label setsLabel;
+    private final Label checkoutLabel;
+    private final FadeTransition checkoutFade;
+
+    // Last rendered snapshot; sentinels force the first render to write everything.
+    private int score = Integer.MIN_VALUE;
+    private int prevScore = Integer.MIN_VALUE;
+    private long avgPoints = -1;
+    private long avgDarts = -1;
+    private int legs = Integer.MIN_VALUE;
+    private int sets = Integer.MIN_VALUE;
+    private int active = -1;
+    private String checkout;
+    private boolean checkoutShown = true;
+
+    /**
+     * Builds the panel for one side.
+     *
+     * @param name the side's display name
+     * @param members the players on the side; they share its score, legs and sets
+     */
+    PlayerView(String name, Player[] members) {
+        this.members = members;
+        this.nameLabel = label(name, INACTIVE_NAME_STYLE);
+        this.scoreLabel = label("", "-fx-font-size: 90px; -fx-font-weight: bold; -fx-text-fill: #00ff00;");
+        this.prevScoreLabel = label("", "-fx-font-size: 22px; -fx-text-fill: #cccccc;");
+        this.avgLabel = label("", "-fx-font-size: 22px; -fx-text-fill: #bbbbbb;");
+        this.legsLabel = label("", "-fx-font-size: 26px; -fx-font-weight: bold; -fx-text-fill: yellow;");
+        this.setsLabel = label("", "-fx-font-size: 26px; -fx-font-weight: bold; -fx-text-fill: yellow;");
+        this.checkoutLabel = label("", "-fx-font-size: 28px; -fx-text-fill: #00bfff; -fx-wrap-text: true; "
+                + "-fx-alignment: CENTER; -fx-text-alignment: center;");
+        this.checkoutFade = new FadeTransition(FADE_DURATION, checkoutLabel);
+
+        VBox averages = new VBox(6, prevScoreLabel, avgLabel);
+        averages.setAlignment(Pos.CENTER);
+        HBox counts = new HBox(20,
+                label("Legs:", "-fx-font-size: 22px; -fx-text-fill: white;"), legsLabel,
+                label("Sets:", "-fx-font-size: 22px; -fx-text-fill: white;"), setsLabel);
+        counts.setAlignment(Pos.CENTER);
+        Label checkoutTitle = label("CHECKOUT", "-fx-font-size: 32px; -fx-font-weight: bold; -fx-text-fill: #ffffff;");
+
+        this.node = new VBox(10, nameLabel, scoreLabel, averages, counts, checkoutTitle, checkoutLabel);
+        node.setAlignment(Pos.CENTER);
+        node.setPrefWidth(320);
+    }
+
+    private static Label label(String text, String style) {
+        Label label = new Label(text);
+        label.setStyle(style);
+        return label;
+    }
+
+    /** @return the panel to add to the scoreboard */
+    Node getNode() { return node; }
+
+    /**
+     * Brings the labels up to date with the side's state.
+     *
+     * @param isActive whether it is this side's turn
+     * @param checkoutText the checkout route to show, or an empty string
+     */
+    void render(boolean isActive, String checkoutText) {
+        Player player = members[0];
+        if (player.getCurrentScore() != score) {
+            score = player.getCurrentScore();
+            scoreLabel.setText(Integer.toString(score));
+        }
+        if (player.getLastTurnScored() != prevScore) {
+            prevScore = player.getLastTurnScored();
+            prevScoreLabel.setText("Prev: " + prevScore);
+        }
+
+        long points = 0;
+        long darts = 0;
+        for (Player member : members) {
+            points += member.getStats().getTotalPoints();
+            darts += member.getStats().getTotalDarts();
+        }
+        if (points != avgPoints || darts != avgDarts) {
+            avgPoints = points;
+            avgDarts = darts;
+            avgLabel.setText(formatAverage(darts == 0 ? 0 : points * 3.0 / darts));
+        }
+
+        if (player.getLegsWon() != legs) {
+            legs = player.getLegsWon();
+            legsLabel.setText(Integer.toString(legs));
+        }
+        if (player.getSetsWon() != sets) {
+            sets = player.getSetsWon();
+            setsLabel.setText(Integer.toString(sets));
+        }
+
+        int activeFlag = isActive ? 1 : 0;
+        if (activeFlag != active) {
+            active = activeFlag;
+            nameLabel.setStyle(isActive ? ACTIVE_NAME_STYLE : INACTIVE_NAME_STYLE);
+            checkoutLabel.setTextFill(isActive ? ACTIVE_CHECKOUT : WAITING_CHECKOUT);
+        }
+
+        if (!checkoutText.equals(checkout)) {
+            checkout = checkoutText;
+            if (!checkoutText.isEmpty()) checkoutLabel.setText(checkoutText);
+            fadeCheckout(!checkoutText.isEmpty());
+        }
+    }
+
+    /** Fades the checkout label in or out, continuing from wherever a running fade has got to. */
+    private void fadeCheckout(boolean visible) {
+        if (visible == checkoutShown) return;
+        checkoutShown = visible;
+        checkoutFade.stop();
+        checkoutFade.setFromValue(checkoutLabel.getOpacity());
+        checkoutFade.setToValue(visible ? 1 : 0);
+        checkoutFade.play();
+    }
+
+    /** Formats an average to two decimal places without going through {@code String.format}. */
+    static String formatAverage(double average) {
+        long hundredths = Math.round(average * 100);
+        long fraction = hundredths % 100;
+        return "3-Dart Avg: " + (hundredths / 100) + (fraction < 10 ? ".0" : ".") + fraction;
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.dartcounterapp;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/** JFR event covering one scoreboard render, with the time since the oldest entry it shows. */
+@Name("com.example.dartcounter.Render")
+@Label("Render")
+@Category({"DartCounter", "UI"})
+@Description("A render of the scoreboard labels")
+@StackTrace(false)
+final class RenderEvent extends jdk.jfr.Event {
+
+    @Label("Input Latency")
+    @Description("From the oldest entry not yet on screen to the end of the layout pass that shows it")
+    @Timespan(Timespan.NANOSECONDS)
+    long inputLatency;
+}
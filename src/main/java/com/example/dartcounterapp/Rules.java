@@ -0,0 +1,290 @@
+package com.example.dartcounterapp;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The rules a leg is played to: the starting score, which darts may open the scoring and
+ * which may finish it, for example 501 straight in, double out, or 301 double in, double out.
+ *
+ * <p>Each rule set is compiled once into a transition table over every remaining score and
+ * every {@link Dart} code, giving the score after the dart, 0 for a finish, or {@link #BUST}.
+ * {@link Game} resolves each dart with one lookup, whatever the variant. The fewest darts that
+ * finish each score, and so which totals can finish or leave a bust, and the checkout routes
+ * of variants that do not end on a double, are all derived from the same table.</p>
+ *
+ * <p>Rule sets are immutable and shared: {@link #of} returns the same instance, and table,
+ * for the same rules.</p>
+ */
+public final class Rules {
+
+    /** Which darts may score first in a leg. */
+    public enum In {
+        /** Any dart. */
+        STRAIGHT,
+        /** A double or the bull; darts before it do not count. */
+        DOUBLE,
+        /** A double, a treble or the bull. */
+        MASTER;
+
+        boolean accepts(int dart) {
+            return switch (this) {
+                case STRAIGHT -> true;
+                case DOUBLE -> Dart.isDouble(dart);
+                case MASTER -> Dart.multiplier(dart) >= 2;
+            };
+        }
+    }
+
+    /** Which darts may finish a leg. */
+    public enum Out {
+        /** Any dart. */
+        STRAIGHT,
+        /** A double or the bull. */
+        DOUBLE,
+        /** A double, a treble or the bull. */
+        MASTER;
+
+        boolean accepts(int dart) {
+            return switch (this) {
+                case STRAIGHT -> true;
+                case DOUBLE -> Dart.isDouble(dart);
+                case MASTER -> Dart.multiplier(dart) >= 2;
+            };
+        }
+
+        /** @return the lowest score a single finishing dart can take out */
+        int lowestFinish() {
+            return this == STRAIGHT ? 1 : 2;
+        }
+    }
+
+    /** Highest starting score a rule set can have. */
+    public static final int MAX_START_SCORE = 9_999;
+
+    /** Table entry for a dart that busts the turn. */
+    public static final int BUST = -1;
+
+    private static final int DART_BITS = 7;
+    private static final int NEVER = Short.MAX_VALUE;
+    private static final int MAX_DARTS = 3;
+    private static final Map<Integer, Rules> COMPILED = new ConcurrentHashMap<>();
+
+    /** The usual rules: 501, straight in, double out. */
+    public static final Rules STANDARD = of(501, In.STRAIGHT, Out.DOUBLE);
+
+    private final int startScore;
+    private final In in;
+    private final Out out;
+
+    /** Score after each dart, indexed by {@code score << 7 | dart}; 0 finishes, {@link #BUST} busts. */
+    private final short[] next;
+    /** Fewest darts that finish each score, or {@link #NEVER}. */
+    private final short[] finishDarts;
+    /** First dart of the route for each score, where {@link #finishDarts} is finite. */
+    private final byte[] firstDart;
+    /** Route text for each score that can be finished in one turn. */
+    private final String[] routeText = new String[ThrowValidator.MAX_TURN_SCORE + 1];
+    /** Totals a turn from the starting score can make, given which darts open the scoring. */
+    private final boolean[] openingTotals = new boolean[ThrowValidator.MAX_TURN_SCORE + 1];
+
+    private Rules(int startScore, In in, Out out) {
+        this.startScore = startScore;
+        this.in = in;
+        this.out = out;
+        this.next = new short[(startScore + 1) << DART_BITS];
+        this.finishDarts = new short[startScore + 1];
+        this.firstDart = new byte[startScore + 1];
+        compile();
+    }
+
+    /**
+     * @param startScore each leg's starting score, 2 to {@value #MAX_START_SCORE}
+     * @return the compiled rules, shared with every other caller asking for the same rules
+     */
+    public static Rules of(int startScore, In in, Out out) {
+        if (startScore < 2 || startScore > MAX_START_SCORE) {
+            throw new IllegalArgumentException("Starting score must be 2 to " + MAX_START_SCORE + ": " + startScore);
+        }
+        return COMPILED.computeIfAbsent(key(startScore, in.ordinal() << 2 | out.ordinal()),
+                k -> new Rules(startScore, in, out));
+    }
+
+    /** @return straight in, double out from the given starting score */
+    public static Rules doubleOut(int startScore) {
+        return of(startScore, In.STRAIGHT, Out.DOUBLE);
+    }
+
+    private static int key(int startScore, int code) {
+        return startScore << 4 | code;
+    }
+
+    /** @return the in and out rules packed into one small int, for {@link MatchCodec} */
+    int code() {
+        return in.ordinal() << 2 | out.ordinal();
+    }
+
+    /**
+     * @return the rules for a starting score and a {@link #code}
+     * @throws IllegalArgumentException if the code names no rules
+     */
+    static Rules fromCode(int startScore, int code) {
+        int in = code >>> 2;
+        int out = code & 0x3;
+        if (in >= In.values().length || out >= Out.values().length) {
+            throw new IllegalArgumentException("No rules with code " + code);
+        }
+        return of(startScore, In.values()[in], Out.values()[out]);
+    }
+
+    private void compile() {
+        for (int score = 1; score <= startScore; score++) {
+            int base = score << DART_BITS;
+            for (int dart = 0; dart < Dart.CODE_LIMIT; dart++) {
+                if (!Dart.isValid(dart)) continue;
+                next[base | dart] = (short) resolve(score, dart);
+            }
+        }
+
+        // Every dart that moves lowers the score, so each score only needs the ones below it.
+        finishDarts[0] = 0;
+        for (int score = 1; score <= startScore; score++) {
+            int best = NEVER;
+            int bestKey = Integer.MAX_VALUE;
+            int bestDart = Dart.MISS;
+            for (int dart = 0; dart < Dart.CODE_LIMIT; dart++) {
+                if (!Dart.isValid(dart)) continue;
+                int after = next[score << DART_BITS | dart];
+                if (after == BUST || after == score || finishDarts[after] == NEVER) continue;
+                int darts = finishDarts[after] + 1;
+                int key = preference(dart, after == 0);
+                if (darts < best || (darts == best && key < bestKey)) {
+                    best = darts;
+                    bestKey = key;
+                    bestDart = dart;
+                }
+            }
+            finishDarts[score] = (short) best;
+            firstDart[score] = (byte) bestDart;
+        }
+
+        // A dart that opens the scoring is one that moves the starting score; the rest of the
+        // turn may be any darts, and darts before the opening one score nothing.
+        openingTotals[0] = true;
+        for (int dart = 0; dart < Dart.CODE_LIMIT; dart++) {
+            if (!Dart.isValid(dart) || next[startScore << DART_BITS | dart] == startScore) continue;
+            for (int total = Dart.score(dart); total < openingTotals.length; total++) {
+                if (ThrowValidator.isReachable(total - Dart.score(dart), MAX_DARTS - 1)) openingTotals[total] = true;
+            }
+        }
+
+        for (int score = 1; score < routeText.length && score <= startScore; score++) {
+            if (finishDarts[score] > MAX_DARTS) continue;
+            StringBuilder route = new StringBuilder();
+            for (int s = score; s != 0; s = next[s << DART_BITS | firstDart[s]]) {
+                if (!route.isEmpty()) route.append(' ');
+                route.append(Dart.name(firstDart[s]));
+            }
+            routeText[score] = route.toString();
+        }
+    }
+
+    /** @return where one dart from the score leaves it, before any table exists */
+    private int resolve(int score, int dart) {
+        // Until the scoring is opened, darts that cannot open it count for nothing.
+        if (score == startScore && !in.accepts(dart)) return score;
+        int after = score - Dart.score(dart);
+        if (after == 0) return out.accepts(dart) ? 0 : BUST;
+        return after < out.lowestFinish() ? BUST : after;
+    }
+
+    /**
+     * Orders darts that finish a score in equally few darts: a finishing dart on the widest bed
+     * that takes it out, otherwise the highest scoring setup dart.
+     */
+    private static int preference(int dart, boolean finishing) {
+        return finishing ? Dart.multiplier(dart) * 32 - Dart.segment(dart) : 1000 - Dart.score(dart);
+    }
+
+    /** @return each leg's starting score */
+    public int getStartScore() { return startScore; }
+
+    public In getIn() { return in; }
+
+    public Out getOut() { return out; }
+
+    /**
+     * Resolves one dart.
+     *
+     * @param score the remaining score, 1 to the starting score
+     * @param dart a valid {@link Dart} code
+     * @return the remaining score after the dart, 0 if it finished the leg, or {@link #BUST}
+     */
+    public int next(int score, int dart) {
+        return next[score << DART_BITS | dart];
+    }
+
+    /** @return fewest darts that can finish the score, or 0 if it cannot be finished in one turn */
+    public int minFinishDarts(int score) {
+        if (score < 1 || score > startScore) return 0;
+        int darts = finishDarts[score];
+        return darts <= MAX_DARTS ? darts : 0;
+    }
+
+    /** @return true if the score can be finished with the given number of darts */
+    public boolean canFinish(int score, int darts) {
+        int fewest = minFinishDarts(score);
+        return fewest != 0 && fewest <= darts;
+    }
+
+    /** @return true if a turn that leaves this score is bust: below zero, or a score no dart can finish */
+    public boolean isBust(int remaining) {
+        return remaining < 0 || (remaining > 0 && remaining <= startScore && finishDarts[remaining] == NEVER);
+    }
+
+    /**
+     * @return true if a turn from the starting score can score exactly this total with three
+     *         darts, given which darts open the scoring
+     */
+    public boolean isOpeningTotal(int total) {
+        return total >= 0 && total < openingTotals.length && openingTotals[total];
+    }
+
+    /**
+     * @return the double (1-20, or 25 for the bull) that finishes the score in one dart, or 0 if
+     *         none does or the leg does not have to end on a double, so no dart is thrown at one
+     */
+    public int finishingDouble(int score) {
+        if (out == Out.STRAIGHT || score < 2 || score > startScore) return 0;
+        int segment = score == 50 ? 25 : score <= 40 && (score & 1) == 0 ? score / 2 : 0;
+        return segment != 0 && next(score, Dart.of(segment, 2)) == 0 ? segment : 0;
+    }
+
+    /** @return true if the checkouts of {@link CheckoutTable} apply to the score under these rules */
+    boolean usesCheckoutTable(int score) {
+        return out == Out.DOUBLE && (in == In.STRAIGHT || score != startScore);
+    }
+
+    /**
+     * Returns a fewest-darts route that finishes the score under these rules.
+     *
+     * @param score the remaining score
+     * @param dartsLeft darts left in the turn (1 to 3)
+     * @return the route text, or an empty string when the score cannot be finished with those darts
+     */
+    public String route(int score, int dartsLeft) {
+        if (!canFinish(score, dartsLeft)) return "";
+        return routeText[score];
+    }
+
+    /** @return the first dart of the fewest-darts route from the score, or T20 if there is none */
+    public int aimFor(int score) {
+        if (score < 1 || score > startScore || finishDarts[score] == NEVER) return Dart.of(20, 3);
+        return firstDart[score];
+    }
+
+    @Override
+    public String toString() {
+        return startScore + " " + in.name().toLowerCase() + " in, " + out.name().toLowerCase() + " out";
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.dartcounterapp;
+
+import java.util.Arrays;
+
+/**
+ * Match state for every side of a game, held in parallel primitive arrays indexed by side.
+ * A side is a single player or a team sharing one score. {@link Game} reads and writes
+ * these arrays directly on the scoring path, and each {@link Player} seated at a side
+ * reads its slot through the same sheet.
+ */
+final class ScoreSheet {
+
+    final int[] score;
+    final int[] turnStart;
+    final int[] lastTurn;
+    final int[] legs;
+    final int[] sets;
+
+    ScoreSheet(int sides, int startScore) {
+        score = new int[sides];
+        turnStart = new int[sides];
+        lastTurn = new int[sides];
+        legs = new int[sides];
+        sets = new int[sides];
+        Arrays.fill(score, startScore);
+        Arrays.fill(turnStart, startScore);
+    }
+
+    /** @return number of sides on the sheet */
+    int sides() { return score.length; }
+
+    /** Resets one side's scores for a new leg. */
+    void resetLeg(int side, int targetScore) {
+        score[side] = targetScore;
+        turnStart[side] = targetScore;
+        lastTurn[side] = 0;
+    }
+
+    /** Resets every side's scores for a new leg. */
+    void resetLeg(int targetScore) {
+        Arrays.fill(score, targetScore);
+        Arrays.fill(turnStart, targetScore);
+        Arrays.fill(lastTurn, 0);
+    }
+
+    /** Clears every side's leg count at the start of a set. */
+    void resetLegs() {
+        Arrays.fill(legs, 0);
+    }
+}
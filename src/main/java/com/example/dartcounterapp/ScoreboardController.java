@@ -1,11 +1,16 @@
 package com.example.dartcounterapp;
 
-import javafx.animation.FadeTransition;
+import javafx.application.Platform;
 import javafx.fxml.FXML;
+import javafx.scene.Scene;
 import javafx.scene.control.*;
+import javafx.scene.input.KeyCode;
+import javafx.scene.input.KeyEvent;
+import javafx.scene.layout.FlowPane;
 import javafx.scene.paint.Color;
 import javafx.scene.text.Text;
-import javafx.util.Duration;
+
+import java.util.List;
 
 /**
  * Controller for the scoreboard view.
@@ -13,17 +18,14 @@ import javafx.util.Duration;
  */
 public class ScoreboardController {
 
-    @FXML private Label player1NameLabel, player2NameLabel;
-    @FXML private Label player1ScoreLabel, player2ScoreLabel;
-    @FXML private Label player1PrevScoreLabel, player2PrevScoreLabel;
-    @FXML private Label player1AvgLabel, player2AvgLabel;
-    @FXML private Label player1LegsLabel, player2LegsLabel;
-    @FXML private Label player1SetsLabel, player2SetsLabel;
-    @FXML private Label player1CheckoutLabel, player2CheckoutLabel;
+    /** Pause before each of the bot's darts, so its turn can be followed. */
+    private static final long BOT_DART_DELAY_MILLIS = 700;
+
+    @FXML private FlowPane playersBox;
     @FXML private Label matchFormatLabel;
     @FXML private Text currentPlayerLabel, dartsThrownLabel, messageLabel;
     @FXML private TextField dartInputField;
-    @FXML private Button throwButton;
+    @FXML private Button throwButton, undoButton, redoButton;
     @FXML private ToggleButton modeToggle;
 
     private Game game;
@@ -31,24 +33,85 @@ public class ScoreboardController {
     private boolean perDartMode = false;
     private int dartsThisTurn = 0;
 
+    private PlayerView[] views = new PlayerView[0];
+    private Player renderedCurrentPlayer;
+    private boolean renderPending = false;
+    private final LatencyMonitor latency = new LatencyMonitor();
+
+    private Bot bot;
+    private Player botPlayer;
+    private boolean botThrowing;
+    private int botScore;
+    private int botDartsLeft;
+    private Scene hookedScene;
+
     /**
-     * Injects the Game instance and initializes the match format display.
+     * Injects the Game instance, turns on its undo history, builds a panel for each side and
+     * initializes the match format display. Can be called again to start another match.
      */
     public void setGame(Game game) {
         this.game = game;
+        game.enableHistory();
         matchFormatLabel.setText(
                 String.format("First to %d Legs, %d Sets", game.getLegsPerSet(), game.getSetsToWin())
         );
+        views = new PlayerView[game.getSideCount()];
+        playersBox.getChildren().clear();
+        for (int side = 0; side < views.length; side++) {
+            views[side] = new PlayerView(game.getSideName(side), game.getSidePlayers(side));
+            playersBox.getChildren().add(views[side].getNode());
+        }
+        Scene scene = playersBox.getScene();
+        // A later match on the same board keeps the hooks the first one added.
+        if (scene != null && scene != hookedScene) {
+            hookedScene = scene;
+            latency.attach(scene);
+            scene.addEventFilter(KeyEvent.KEY_PRESSED, this::handleShortcut);
+        }
+        // Resumed mid-turn from the journal: continue in per-dart mode.
+        syncTurn();
         updateUI();
     }
 
+    /**
+     * Lets a bot throw for a player, for practice: whenever it is that player's turn the bot
+     * decides each dart on its own thread and the dart is entered here as if typed.
+     */
+    public void setBot(Bot bot, Player player) {
+        this.bot = bot;
+        this.botPlayer = player;
+        nextBotDart();
+    }
+
+    /**
+     * Binds the controls of a scoreboard built in code by {@link ScoreboardScene}
+     * in place of FXML injection, then initializes the controller.
+     */
+    void bind(FlowPane playersBox, Label matchFormatLabel, Text currentPlayerLabel, Text dartsThrownLabel,
+              Text messageLabel, TextField dartInputField, Button throwButton, Button undoButton,
+              Button redoButton, ToggleButton modeToggle) {
+        this.playersBox = playersBox;
+        this.matchFormatLabel = matchFormatLabel;
+        this.currentPlayerLabel = currentPlayerLabel;
+        this.dartsThrownLabel = dartsThrownLabel;
+        this.messageLabel = messageLabel;
+        this.dartInputField = dartInputField;
+        this.throwButton = throwButton;
+        this.undoButton = undoButton;
+        this.redoButton = redoButton;
+        this.modeToggle = modeToggle;
+        initialize();
+    }
+
     /**
      * Called automatically by JavaFX after FXML loading.
-     * Sets up event listeners for throw and toggle buttons.
+     * Sets up event listeners for the throw, undo, redo and toggle buttons.
      */
     @FXML
     public void initialize() {
         throwButton.setOnAction(e -> handleThrow());
+        undoButton.setOnAction(e -> handleUndo(false));
+        redoButton.setOnAction(e -> handleUndo(true));
         dartInputField.setOnAction(e -> handleThrow());
 
         modeToggle.setOnAction(e -> {
@@ -82,140 +145,255 @@ public class ScoreboardController {
         messageLabel.setFill(Color.LIGHTBLUE);
     }
 
-    /** Handles when the user presses the "Throw" button or hits Enter. */
+    /** Handles when the user presses the "Throw" button or hits Enter. Several throws at once are entered as a batch. */
     private void handleThrow() {
         if (game == null) return;
 
         String input = dartInputField.getText().trim();
         if (input.isEmpty()) return;
+        if (isBotTurn()) {
+            messageLabel.setText(botPlayer.getName() + " is throwing");
+            messageLabel.setFill(Color.ORANGE);
+            return;
+        }
 
-        dartsThisTurn++;
-        String result = perDartMode ? handlePerDartInput(input) : handleTotalInput(input);
+        long start = latency.inputStarted();
+        InputEvent event = new InputEvent();
+        event.begin();
 
-        dartInputField.clear();
-        processResult(result);
+        ThrowResult result;
+        if (isBatch(input)) {
+            result = handleBatchInput(input);
+        } else {
+            Player thrower = game.getCurrentPlayer();
+            result = perDartMode ? handlePerDartInput(input) : handleTotalInput(input);
+            dartInputField.clear();
+            processResult(result, thrower);
+        }
         updateUI();
+        nextBotDart();
+
+        if (event.shouldCommit()) {
+            event.perDart = perDartMode;
+            event.result = result == null ? "" : result.name();
+            event.commit();
+        }
+        latency.inputFinished(start);
     }
 
-    /** Handles individual dart input mode (e.g. "T20", "D10"). */
-    private String handlePerDartInput(String input) {
-        int parsed = game.parseDart(input);
-        if (parsed < 0) {
-            messageLabel.setText("Invalid dart entry!");
+    /** Ctrl+Z takes back the last throw; Ctrl+Y or Ctrl+Shift+Z puts it back. */
+    private void handleShortcut(KeyEvent e) {
+        if (!e.isShortcutDown()) return;
+        if (e.getCode() == KeyCode.Z) {
+            handleUndo(e.isShiftDown());
+        } else if (e.getCode() == KeyCode.Y) {
+            handleUndo(true);
+        } else {
+            return;
+        }
+        e.consume();
+    }
+
+    /** Takes back the last throw, or puts back the last one taken back. */
+    private void handleUndo(boolean redo) {
+        if (game == null) return;
+        boolean done = redo ? game.redo() : game.undo();
+        if (!done) {
+            messageLabel.setText(redo ? "Nothing to redo" : "Nothing to undo");
+            messageLabel.setFill(Color.ORANGE);
+            return;
+        }
+        syncTurn();
+        messageLabel.setText(redo ? "Redone" : "Undone");
+        messageLabel.setFill(Color.LIGHTBLUE);
+        updateUI();
+        nextBotDart();
+    }
+
+    private boolean isBotTurn() {
+        return bot != null && game.getMatchWinner() == null && game.getCurrentPlayer() == botPlayer;
+    }
+
+    /** Asks the bot for its next dart if it is the bot's turn and it is not already throwing. */
+    private void nextBotDart() {
+        if (botThrowing || !isBotTurn()) return;
+        botThrowing = true;
+        botScore = botPlayer.getCurrentScore();
+        botDartsLeft = game.getDartsLeft(botPlayer);
+        bot.throwLater(game.getRules(), botScore, botDartsLeft, BOT_DART_DELAY_MILLIS,
+                dart -> Platform.runLater(() -> enterBotDart(dart)));
+    }
+
+    /** Enters the bot's dart, unless an undo changed the state it was thrown from. */
+    private void enterBotDart(int dart) {
+        botThrowing = false;
+        if (!isBotTurn() || botPlayer.getCurrentScore() != botScore || game.getDartsLeft(botPlayer) != botDartsLeft) {
+            nextBotDart();
+            return;
+        }
+        currentTurnDarts.append(Dart.name(dart)).append("  ");
+        dartsThrownLabel.setText("Darts this turn: " + currentTurnDarts);
+        processResult(game.throwDart(dart), botPlayer);
+        updateUI();
+        nextBotDart();
+    }
+
+    /**
+     * Rebuilds the darts-this-turn display from the game, after it changed other than by a
+     * throw entered here. A turn left part-way through continues in per-dart mode.
+     */
+    private void syncTurn() {
+        dartsThisTurn = game.getDartsThrown();
+        currentTurnDarts.setLength(0);
+        for (int i = 0; i < dartsThisTurn; i++) {
+            int dart = game.getTurnDart(i);
+            if (dart != Dart.INVALID) currentTurnDarts.append(Dart.name(dart)).append("  ");
+        }
+        dartsThrownLabel.setText("Darts this turn:" + (dartsThisTurn > 0 ? " " + currentTurnDarts : ""));
+        if (dartsThisTurn > 0 && !perDartMode) {
+            toggleInputMode();
+            modeToggle.setSelected(true);
+        }
+    }
+
+    /** @return a summary of the scoreboard's latency histograms */
+    public String getLatencySummary() {
+        return latency.summary();
+    }
+
+    /**
+     * @return true if the entry holds more than one throw: any entry with a turn separator
+     *         (",", ";", "|" or a line break). Otherwise, in per-dart mode, any entry with a
+     *         space. In total mode the entry also needs a dart such as "T20", since "40 2 1"
+     *         and "40 / 2 / 1" are both one checkout with its dart counts, and totals alone
+     *         are separated as "140, 100".
+     */
+    private boolean isBatch(String input) {
+        boolean space = false;
+        boolean letter = false;
+        for (int i = 0; i < input.length(); i++) {
+            char c = input.charAt(i);
+            if (c == ',' || c == ';' || c == '|' || c == '\n') return true;
+            if (Character.isWhitespace(c)) space = true;
+            else if (Character.isLetter(c)) letter = true;
+        }
+        return space && (perDartMode || letter);
+    }
+
+    /**
+     * Enters a sequence of throws (e.g. "T20 T20 T20 / 140 / 100") in one pass. If any entry is
+     * invalid nothing is entered, the errors are shown together and the text is kept to fix.
+     */
+    private ThrowResult handleBatchInput(String input) {
+        long start = System.nanoTime();
+        ThrowBatch batch = game.throwBatch(input, perDartMode);
+        latency.scored(start);
+        if (!batch.isValid()) {
+            List<String> errors = batch.getErrors();
+            messageLabel.setText((errors.size() == 1 ? "1 invalid entry" : errors.size() + " invalid entries")
+                    + ", nothing entered:\n" + String.join("\n", errors.subList(0, Math.min(3, errors.size())))
+                    + (errors.size() > 3 ? "\n..." : ""));
             messageLabel.setFill(Color.RED);
-            return "";
+            return null;
         }
-        currentTurnDarts.append(input.toUpperCase()).append("  ");
+        dartInputField.clear();
+        syncTurn();
+        ThrowResult result = batch.getLastResult();
+        String entered = batch.getThrowCount() + " throws entered";
+        if (result == ThrowResult.BUST || result.isWin()) {
+            Player thrower = game.getPlayer(MatchCodec.seat(batch.getEvent(batch.getThrowCount() - 1)));
+            entered += ": " + result.describe(game.getSideName(thrower.getSide()));
+        }
+        messageLabel.setText(entered);
+        messageLabel.setFill(Color.GREEN);
+        return result;
+    }
+
+    /** Handles individual dart input mode (e.g. "T20", "D10"). */
+    private ThrowResult handlePerDartInput(String input) {
+        int dart = Dart.parse(input);
+        if (dart == Dart.INVALID) return ThrowResult.INVALID_DART;
+        currentTurnDarts.append(Dart.name(dart)).append("  ");
         dartsThrownLabel.setText("Darts this turn: " + currentTurnDarts);
-        return game.throwDart(input);
+        long start = System.nanoTime();
+        ThrowResult result = game.throwDart(dart);
+        latency.scored(start);
+        return result;
     }
 
-    /** Handles total-score input mode (e.g. 100, 140). */
-    private String handleTotalInput(String input) {
+    /**
+     * Handles total-score input mode (e.g. 100, 140). A checkout may add the darts used and
+     * the darts thrown at a double, e.g. "40/2/2".
+     *
+     * @return what the turn did, or null if the entry is not a total
+     */
+    private ThrowResult handleTotalInput(String input) {
         try {
-            int total = Integer.parseInt(input);
-            String result = game.throwTotal(total);
-            if (result.startsWith("Invalid")) {
-                messageLabel.setText(result);
-                messageLabel.setFill(Color.RED);
-                return "";
-            }
+            String[] parts = input.split("[/\\s]+");
+            if (parts.length > 3) throw new NumberFormatException(input);
+            int total = Integer.parseInt(parts[0]);
+            int darts = parts.length > 1 ? Integer.parseInt(parts[1]) : 0;
+            int dartsAtDouble = parts.length > 2 ? Integer.parseInt(parts[2]) : -1;
+            long start = System.nanoTime();
+            ThrowResult result = game.throwTotal(total, darts, dartsAtDouble);
+            latency.scored(start);
             return result;
         } catch (NumberFormatException e) {
-            messageLabel.setText("Enter a valid total (number only).");
+            messageLabel.setText("Enter a valid total, e.g. 100 or 40/2/1.");
             messageLabel.setFill(Color.RED);
-            return "";
+            return null;
         }
     }
 
     /**
-     * Interprets game results and updates message/status text.
-     * Resets turn state when switching or busting.
+     * Shows what a throw did and resets the turn display once the turn is over, whether by
+     * switching, busting or winning.
+     *
+     * @param result the throw's result, or null if the entry was not understood and the
+     *               reason is already shown
+     * @param thrower the player who threw
      */
-    private void processResult(String result) {
-        if (result.isEmpty()) {
-            messageLabel.setText("");
-            return;
-        }
-
-        messageLabel.setText(result);
-        messageLabel.setFill(result.equals("Bust!") ? Color.RED : Color.GREEN);
+    private void processResult(ThrowResult result, Player thrower) {
+        if (result == null) return;
+        messageLabel.setText(result.describe(game.getSideName(thrower.getSide())));
+        messageLabel.setFill(!result.isValid() || result == ThrowResult.BUST ? Color.RED : Color.GREEN);
 
-        if (result.equals("Bust!") || result.equals("Switch") || result.contains("wins the leg")) {
+        dartsThisTurn = game.getDartsThrown();
+        if (result.endsTurn()) {
             currentTurnDarts.setLength(0);
-            dartsThisTurn = 0;
             dartsThrownLabel.setText("Darts this turn:");
         }
     }
 
-    /** Updates all UI labels to reflect the current game state. */
+    /**
+     * Schedules a render of the current game state. Several state changes made before the
+     * render runs are folded into a single pass over the labels.
+     */
     private void updateUI() {
-        if (game == null) return;
-
-        Player p1 = game.getPlayer1();
-        Player p2 = game.getPlayer2();
-
-        player1NameLabel.setText(p1.getName());
-        player2NameLabel.setText(p2.getName());
-        player1ScoreLabel.setText(String.valueOf(p1.getCurrentScore()));
-        player2ScoreLabel.setText(String.valueOf(p2.getCurrentScore()));
-
-        player1PrevScoreLabel.setText("Prev: " + p1.getLastTurnScored());
-        player2PrevScoreLabel.setText("Prev: " + p2.getLastTurnScored());
-        player1AvgLabel.setText(String.format("3-Dart Avg: %.2f", p1.getThreeDartAverage()));
-        player2AvgLabel.setText(String.format("3-Dart Avg: %.2f", p2.getThreeDartAverage()));
-
-        player1LegsLabel.setText(String.valueOf(p1.getLegsWon()));
-        player2LegsLabel.setText(String.valueOf(p2.getLegsWon()));
-        player1SetsLabel.setText(String.valueOf(p1.getSetsWon()));
-        player2SetsLabel.setText(String.valueOf(p2.getSetsWon()));
-
-        updateActivePlayerHighlight(p1, p2);
-        updateCheckoutDisplays(p1, p2);
-
-        currentPlayerLabel.setText("Current Turn: " + game.getCurrentPlayer().getName());
+        if (game == null || renderPending) return;
+        renderPending = true;
+        Platform.runLater(this::render);
     }
 
-    /** Highlights the active player’s name label. */
-    private void updateActivePlayerHighlight(Player p1, Player p2) {
-        if (game.getCurrentPlayer() == p1) {
-            player1NameLabel.setStyle("-fx-font-size: 36px; -fx-font-weight: bold; -fx-text-fill: lime;");
-            player2NameLabel.setStyle("-fx-font-size: 36px; -fx-font-weight: normal; -fx-text-fill: white;");
-        } else {
-            player2NameLabel.setStyle("-fx-font-size: 36px; -fx-font-weight: bold; -fx-text-fill: lime;");
-            player1NameLabel.setStyle("-fx-font-size: 36px; -fx-font-weight: normal; -fx-text-fill: white;");
-        }
-    }
+    /** Renders the game state, touching only labels whose values changed since the last render. */
+    private void render() {
+        renderPending = false;
+        long start = latency.renderStarted();
 
-    /** Updates and animates checkout suggestions for both players. */
-    private void updateCheckoutDisplays(Player p1, Player p2) {
-        String p1Checkout = game.getCheckoutSuggestion(p1.getCurrentScore());
-        String p2Checkout = game.getCheckoutSuggestion(p2.getCurrentScore());
+        Player current = game.getCurrentPlayer();
+        int currentSide = game.getCurrentSide();
 
-        if (!p1Checkout.isEmpty()) {
-            player1CheckoutLabel.setText(p1Checkout);
-            player1CheckoutLabel.setTextFill(game.getCurrentPlayer() == p1
-                    ? Color.LIMEGREEN : Color.web("#00bfff"));
-            fadeLabel(player1CheckoutLabel, true);
-        } else {
-            fadeLabel(player1CheckoutLabel, false);
+        for (int side = 0; side < views.length; side++) {
+            boolean active = side == currentSide;
+            // Every member of a side shares its score; only the thrower has darts in hand.
+            Player shown = active ? current : game.getPlayer(side);
+            views[side].render(active, game.getCheckoutSuggestion(shown));
         }
 
-        if (!p2Checkout.isEmpty()) {
-            player2CheckoutLabel.setText(p2Checkout);
-            player2CheckoutLabel.setTextFill(game.getCurrentPlayer() == p2
-                    ? Color.LIMEGREEN : Color.web("#00bfff"));
-            fadeLabel(player2CheckoutLabel, true);
-        } else {
-            fadeLabel(player2CheckoutLabel, false);
+        if (current != renderedCurrentPlayer) {
+            renderedCurrentPlayer = current;
+            currentPlayerLabel.setText("Current Turn: " + current.getName());
         }
+        latency.renderFinished(start);
     }
-
-    /** Fades a label in or out smoothly. */
-    private void fadeLabel(Label label, boolean visible) {
-        FadeTransition ft = new FadeTransition(Duration.seconds(0.5), label);
-        ft.setFromValue(visible ? 0 : 1);
-        ft.setToValue(visible ? 1 : 0);
-        ft.play();
-    }
-}
\ No newline at end of file
+}
@@ -0,0 +1,105 @@
+package com.example.dartcounterapp;
+
+import javafx.geometry.Insets;
+import javafx.geometry.Pos;
+import javafx.scene.Parent;
+import javafx.scene.control.Button;
+import javafx.scene.control.Label;
+import javafx.scene.control.TextField;
+import javafx.scene.control.ToggleButton;
+import javafx.scene.layout.BorderPane;
+import javafx.scene.layout.FlowPane;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.VBox;
+import javafx.scene.text.Text;
+
+/**
+ * Builds the scoreboard scene graph directly in code, node for node the same as
+ * {@code scoreboard-view.fxml}, and binds it to a {@link ScoreboardController}.
+ * This skips parsing the FXML and injecting fields by reflection, which is most of
+ * the cost of the first load on a cold JVM. Controls get the ids the FXML gives them
+ * as {@code fx:id}, so either scoreboard can be searched with {@code lookup("#dartInputField")}.
+ */
+public final class ScoreboardScene {
+
+    private ScoreboardScene() { }
+
+    /**
+     * Builds the scoreboard and binds its controls to the controller.
+     *
+     * @param controller the controller to bind, which must not have been bound yet
+     * @return the root of the scoreboard
+     */
+    public static Parent build(ScoreboardController controller) {
+        Label title = new Label("🎯 DART COUNTER");
+        title.setStyle("-fx-font-size: 48px; -fx-font-weight: bold; -fx-text-fill: white;");
+
+        Label matchFormatLabel = new Label("First to 3 Legs, 2 Sets");
+        matchFormatLabel.setId("matchFormatLabel");
+        matchFormatLabel.setStyle("-fx-font-size: 26px; -fx-text-fill: #bbbbbb;");
+
+        FlowPane playersBox = new FlowPane(120, 30);
+        playersBox.setId("playersBox");
+        playersBox.setAlignment(Pos.CENTER);
+
+        Text currentPlayerLabel = text("Current Turn: Player 1",
+                "-fx-font-size: 32px; -fx-font-weight: bold; -fx-fill: #ffffff;");
+        currentPlayerLabel.setId("currentPlayerLabel");
+        Text dartsThrownLabel = text("Darts this turn:", "-fx-font-size: 28px; -fx-fill: #dddddd;");
+        dartsThrownLabel.setId("dartsThrownLabel");
+        Text messageLabel = text("", "-fx-font-size: 34px; -fx-font-weight: bold; -fx-fill: red;");
+        messageLabel.setId("messageLabel");
+        VBox status = new VBox(15, currentPlayerLabel, dartsThrownLabel, messageLabel);
+        status.setAlignment(Pos.CENTER);
+
+        TextField dartInputField = new TextField();
+        dartInputField.setId("dartInputField");
+        dartInputField.setPromptText("Enter dart(s): ");
+        dartInputField.setStyle("-fx-font-size: 22px; -fx-pref-width: 250px; -fx-background-radius: 10; -fx-padding: 10;");
+
+        Button throwButton = new Button("⏎");
+        throwButton.setId("throwButton");
+        throwButton.setPrefSize(80, 52);
+        throwButton.setStyle("-fx-font-size: 22px; -fx-background-radius: 10; "
+                + "-fx-background-color: linear-gradient(#3a3a3a, #1e1e1e);-fx-text-fill: white; -fx-font-weight: bold;");
+
+        Button undoButton = button("↶");
+        undoButton.setId("undoButton");
+        Button redoButton = button("↷");
+        redoButton.setId("redoButton");
+
+        ToggleButton modeToggle = new ToggleButton("🎯🎯🎯");
+        modeToggle.setId("modeToggle");
+        modeToggle.setPrefSize(100, 52);
+        modeToggle.setStyle("-fx-font-size: 22px; -fx-background-radius: 10; "
+                + "-fx-background-color: #2a6aff; -fx-text-fill: white; -fx-font-weight: bold;");
+
+        HBox inputRow = new HBox(20, dartInputField, throwButton, undoButton, redoButton, modeToggle);
+        inputRow.setAlignment(Pos.CENTER);
+
+        VBox center = new VBox(40, title, matchFormatLabel, playersBox, status, inputRow);
+        center.setAlignment(Pos.CENTER);
+
+        BorderPane root = new BorderPane(center);
+        root.setStyle("-fx-background-color: radial-gradient(radius 100%, #0d0d0d, #1a1a1a);");
+        root.getStylesheets().add(ScoreboardScene.class.getResource("style.css").toExternalForm());
+        root.setPadding(new Insets(50));
+
+        controller.bind(playersBox, matchFormatLabel, currentPlayerLabel, dartsThrownLabel, messageLabel,
+                dartInputField, throwButton, undoButton, redoButton, modeToggle);
+        return root;
+    }
+
+    private static Button button(String label) {
+        Button button = new Button(label);
+        button.setPrefSize(60, 52);
+        button.setStyle("-fx-font-size: 22px; -fx-background-radius: 10; -fx-background-color: #444; -fx-text-fill: white;");
+        return button;
+    }
+
+    private static Text text(String value, String style) {
+        Text text = new Text(value);
+        text.setStyle(style);
+        return text;
+    }
+}
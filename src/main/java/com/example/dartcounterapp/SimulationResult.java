@@ -0,0 +1,98 @@
+package com.example.dartcounterapp;
+
+/**
+ * Aggregated outcome of a batch of simulated matches between two players.
+ * Distributions are kept as primitive histograms so results from many worker
+ * threads can be merged cheaply.
+ */
+public final class SimulationResult {
+
+    /** Largest number of legs a player can win in one match that is tracked individually. */
+    public static final int MAX_LEGS = 63;
+
+    /** Match averages are bucketed by whole points from 0 to 180. */
+    public static final int AVERAGE_BUCKETS = 181;
+
+    private long matches;
+    private long darts;
+    private long elapsedNanos;
+    private final long[] wins = new long[2];
+    private final long[][] legsWon = new long[2][MAX_LEGS + 1];
+    private final long[][] averages = new long[2][AVERAGE_BUCKETS];
+
+    /** Records one finished match. */
+    void record(int winner, int p1Legs, int p2Legs, double p1Average, double p2Average, int matchDarts) {
+        matches++;
+        darts += matchDarts;
+        wins[winner]++;
+        legsWon[0][Math.min(p1Legs, MAX_LEGS)]++;
+        legsWon[1][Math.min(p2Legs, MAX_LEGS)]++;
+        averages[0][bucket(p1Average)]++;
+        averages[1][bucket(p2Average)]++;
+    }
+
+    private static int bucket(double average) {
+        return (int) Math.max(0, Math.min(AVERAGE_BUCKETS - 1, average));
+    }
+
+    /** Adds another result into this one and returns this. */
+    SimulationResult merge(SimulationResult other) {
+        matches += other.matches;
+        darts += other.darts;
+        for (int p = 0; p < 2; p++) {
+            wins[p] += other.wins[p];
+            for (int i = 0; i < legsWon[p].length; i++) legsWon[p][i] += other.legsWon[p][i];
+            for (int i = 0; i < averages[p].length; i++) averages[p][i] += other.averages[p][i];
+        }
+        return this;
+    }
+
+    void setElapsedNanos(long elapsedNanos) { this.elapsedNanos = elapsedNanos; }
+
+    /** @return number of matches simulated */
+    public long getMatches() { return matches; }
+
+    /** @return number of darts thrown across all matches */
+    public long getDarts() { return darts; }
+
+    /** @return matches won by player 1 (index 0) or player 2 (index 1) */
+    public long getWins(int player) { return wins[player]; }
+
+    /** @return the player's share of matches won, between 0 and 1 */
+    public double getWinProbability(int player) {
+        return matches == 0 ? 0.0 : (double) wins[player] / matches;
+    }
+
+    /** @return number of matches in which the player won exactly {@code legs} legs */
+    public long getLegsWonCount(int player, int legs) { return legsWon[player][legs]; }
+
+    /** @return number of matches in which the player's 3-dart average fell in the given whole-point bucket */
+    public long getAverageCount(int player, int bucket) { return averages[player][bucket]; }
+
+    /** @return the player's mean match average across all simulated matches */
+    public double getMeanAverage(int player) {
+        if (matches == 0) return 0.0;
+        double sum = 0;
+        for (int i = 0; i < AVERAGE_BUCKETS; i++) sum += (i + 0.5) * averages[player][i];
+        return sum / matches;
+    }
+
+    /** @return wall-clock time taken by the simulation */
+    public long getElapsedNanos() { return elapsedNanos; }
+
+    /** @return simulation throughput in matches per second */
+    public double getMatchesPerSecond() {
+        return elapsedNanos == 0 ? 0.0 : matches * 1e9 / elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+                "%d matches in %.2fs (%.0f matches/s, %.0f darts/s)%n"
+                        + "Player 1: %.2f%% wins, mean average %.2f%n"
+                        + "Player 2: %.2f%% wins, mean average %.2f",
+                matches, elapsedNanos / 1e9, getMatchesPerSecond(), darts * 1e9 / Math.max(1, elapsedNanos),
+                getWinProbability(0) * 100, getMeanAverage(0),
+                getWinProbability(1) * 100, getMeanAverage(1));
+    }
+}
@@ -0,0 +1,278 @@
+package com.example.dartcounterapp;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Publishes a live feed of one {@link Game} to any number of local subscribers, such as the
+ * score displays around a venue, from a single selector thread.
+ *
+ * <p>The feed is one-way text, one event per line. A new subscriber first gets
+ * {@code HELLO <side names>} and the current state; after that, every accepted throw sends:</p>
+ * <pre>
+ *   DART &lt;seat&gt; &lt;dart&gt; &lt;remaining&gt;     or   TOTAL &lt;seat&gt; &lt;total&gt; &lt;remaining&gt;
+ *   BUST &lt;seat&gt;                           if the throw bust
+ *   LEG|SET|MATCH &lt;side&gt; &lt;name&gt;           if the throw won one
+ *   STATE &lt;current seat&gt; &lt;score&gt;,&lt;legs&gt;,&lt;sets&gt; ...   one entry per side
+ * </pre>
+ * <p>A throw taken back sends {@code UNDO} and the restored state; putting it back is sent as
+ * a new throw.</p>
+ *
+ * <p>The game thread only formats the lines and queues them; it never touches a socket, so a
+ * slow subscriber cannot add latency to scoring. The selector thread drains everything queued
+ * into one batch and writes it to each subscriber with one non-blocking write. A subscriber
+ * whose unsent backlog would pass {@value #MAX_BACKLOG} bytes has it dropped and is sent
+ * {@code SKIPPED <events>} followed by the latest state instead.</p>
+ */
+public final class SpectatorFeed implements ThrowListener, Closeable {
+
+    private static final int MAX_BACKLOG = 64 * 1024;
+
+    private final Selector selector;
+    private final ServerSocketChannel server;
+    private final ConcurrentLinkedQueue<byte[]> outbox = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean wakeupPending = new AtomicBoolean();
+    private final Thread thread;
+    private final StringBuilder line = new StringBuilder(256);
+    private final byte[] hello;
+
+    private volatile byte[] latestState;
+    private volatile boolean running = true;
+
+    private final ByteBuffer batch = ByteBuffer.allocate(MAX_BACKLOG);
+    private final ByteBuffer readSink = ByteBuffer.allocate(256);
+
+    /**
+     * Starts the feed for a game.
+     *
+     * @param game the game to publish; the feed registers itself as a listener
+     * @param port port to listen on the loopback interface, or 0 for any free port
+     * @throws IOException if the server socket cannot be opened
+     */
+    public SpectatorFeed(Game game, int port) throws IOException {
+        this.selector = Selector.open();
+        this.server = ServerSocketChannel.open();
+        server.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), port));
+        server.configureBlocking(false);
+        server.register(selector, SelectionKey.OP_ACCEPT);
+
+        StringBuilder names = new StringBuilder("HELLO");
+        for (int side = 0; side < game.getSideCount(); side++) {
+            names.append(' ').append(game.getSideName(side).replace(' ', '_'));
+        }
+        hello = names.append('\n').toString().getBytes(StandardCharsets.UTF_8);
+        latestState = encode(appendState(new StringBuilder(), game));
+        game.addThrowListener(this);
+
+        thread = new Thread(this::run, "spectator-feed");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /** @return the port subscribers connect to */
+    public int getPort() {
+        return server.socket().getLocalPort();
+    }
+
+    @Override
+    public void onDart(Game game, Player thrower, int dart) {
+        line.setLength(0);
+        line.append("DART ").append(game.indexOf(thrower)).append(' ').append(Dart.name(dart));
+    }
+
+    @Override
+    public void onTotal(Game game, Player thrower, int total, int darts, int dartsAtDouble) {
+        line.setLength(0);
+        line.append("TOTAL ").append(game.indexOf(thrower)).append(' ').append(total);
+    }
+
+    /** Completes the message begun by {@link #onDart} or {@link #onTotal} and queues it. */
+    @Override
+    public void onResult(Game game, Player thrower, ThrowResult result) {
+        StringBuilder b = line;
+        int side = thrower.getSide();
+        b.append(' ').append(result.isWin() ? 0 : thrower.getCurrentScore()).append('\n');
+        if (result == ThrowResult.BUST) {
+            b.append("BUST ").append(game.indexOf(thrower)).append('\n');
+        } else if (result.isWin()) {
+            b.append(result.name()).append(' ').append(side).append(' ').append(game.getSideName(side)).append('\n');
+        }
+        queue(game);
+    }
+
+    /** Appends the state to the message being built and queues it for the selector thread. */
+    private void queue(Game game) {
+        StringBuilder b = line;
+        int stateStart = b.length();
+        appendState(b, game);
+
+        latestState = encode(b.substring(stateStart));
+        outbox.add(encode(b));
+        if (wakeupPending.compareAndSet(false, true)) selector.wakeup();
+    }
+
+    @Override
+    public void onUndo(Game game) {
+        line.setLength(0);
+        line.append("UNDO\n");
+        queue(game);
+    }
+
+    private static StringBuilder appendState(StringBuilder b, Game game) {
+        b.append("STATE ").append(game.getCurrentIndex());
+        for (int side = 0; side < game.getSideCount(); side++) {
+            Player p = game.getSidePlayers(side)[0];
+            b.append(' ').append(p.getCurrentScore()).append(',').append(p.getLegsWon()).append(',').append(p.getSetsWon());
+        }
+        return b.append('\n');
+    }
+
+    private static byte[] encode(CharSequence text) {
+        return text.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private void run() {
+        while (running) {
+            try {
+                selector.select();
+                wakeupPending.set(false);
+                for (Iterator<SelectionKey> it = selector.selectedKeys().iterator(); it.hasNext(); ) {
+                    SelectionKey key = it.next();
+                    it.remove();
+                    if (!key.isValid()) continue;
+                    if (key.isAcceptable()) accept();
+                    else if (key.isReadable() || key.isWritable()) service(key);
+                }
+                publish();
+            } catch (IOException e) {
+                if (running) System.err.println("Spectator feed failed: " + e.getMessage());
+            }
+        }
+    }
+
+    private void accept() throws IOException {
+        SocketChannel channel = server.accept();
+        if (channel == null) return;
+        channel.configureBlocking(false);
+        channel.socket().setTcpNoDelay(true);
+        Subscriber subscriber = new Subscriber(channel);
+        subscriber.out.put(hello).put(latestState);
+        SelectionKey key = channel.register(selector, SelectionKey.OP_READ, subscriber);
+        flush(key, subscriber);
+    }
+
+    /** Handles a subscriber becoming readable (only to notice it closing) or writable. */
+    private void service(SelectionKey key) {
+        Subscriber subscriber = (Subscriber) key.attachment();
+        try {
+            if (key.isReadable()) {
+                readSink.clear();
+                if (subscriber.channel.read(readSink) < 0) {
+                    drop(key);
+                    return;
+                }
+            }
+            if (key.isValid() && key.isWritable()) flush(key, subscriber);
+        } catch (IOException e) {
+            drop(key);
+        }
+    }
+
+    /** Batches every queued message and hands the batch to each subscriber in one write. */
+    private void publish() {
+        if (outbox.isEmpty()) return;
+        batch.clear();
+        int messages = 0;
+        for (byte[] message = outbox.peek(); message != null; message = outbox.peek()) {
+            if (message.length > batch.remaining()) break;
+            outbox.poll();
+            batch.put(message);
+            messages++;
+        }
+        if (!outbox.isEmpty()) wakeupPending.set(true);
+        batch.flip();
+
+        for (SelectionKey key : selector.keys()) {
+            if (!(key.attachment() instanceof Subscriber subscriber) || !key.isValid()) continue;
+            if (batch.remaining() > subscriber.out.remaining()) {
+                subscriber.coalesce(messages, latestState);
+            } else {
+                subscriber.out.put(batch.duplicate());
+            }
+            try {
+                flush(key, subscriber);
+            } catch (IOException e) {
+                drop(key);
+            }
+        }
+        if (wakeupPending.get()) selector.wakeup();
+    }
+
+    private static void flush(SelectionKey key, Subscriber subscriber) throws IOException {
+        ByteBuffer out = subscriber.out;
+        out.flip();
+        subscriber.channel.write(out);
+        if (out.position() > 0) subscriber.midLine = out.get(out.position() - 1) != '\n';
+        out.compact();
+        key.interestOps(out.position() > 0 ? SelectionKey.OP_READ | SelectionKey.OP_WRITE : SelectionKey.OP_READ);
+    }
+
+    private static void drop(SelectionKey key) {
+        key.cancel();
+        try {
+            key.channel().close();
+        } catch (IOException ignored) {
+            // already gone
+        }
+    }
+
+    /** Stops the feed and disconnects every subscriber. */
+    @Override
+    public void close() throws IOException {
+        running = false;
+        selector.wakeup();
+        try {
+            thread.join(1000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        for (SelectionKey key : selector.keys()) key.channel().close();
+        selector.close();
+    }
+
+    /** One connected display and the bytes still waiting to be written to it. */
+    private static final class Subscriber {
+        final SocketChannel channel;
+        final ByteBuffer out = ByteBuffer.allocate(MAX_BACKLOG);
+        boolean midLine;
+
+        Subscriber(SocketChannel channel) {
+            this.channel = channel;
+        }
+
+        /**
+         * Replaces the backlog with a note of what was skipped and the latest state, keeping
+         * only the rest of a line already partly written so the client never sees half a line.
+         */
+        void coalesce(int skippedMessages, byte[] state) {
+            int keep = 0;
+            if (midLine) {
+                while (keep < out.position() && out.get(keep) != '\n') keep++;
+                keep++;
+            }
+            out.position(Math.min(keep, out.position()));
+            out.put(("SKIPPED " + skippedMessages + '\n').getBytes(StandardCharsets.US_ASCII)).put(state);
+        }
+    }
+}
@@ -0,0 +1,324 @@
+package com.example.dartcounterapp;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Streams a columnar archive written by {@link ThrowArchiveWriter} one block at a time.
+ * Only a single block's columns are held in memory, in arrays reused from block to block,
+ * so aggregating over millions of throws runs in constant memory.
+ *
+ * <p>Rows are streamed without the throws that were taken back, or the undo rows that took
+ * them back. The first stream makes an extra pass to find the taken-back rows; their numbers
+ * are kept, so memory grows only with the undos in the archive.</p>
+ */
+public final class ThrowArchiveReader implements Closeable {
+
+    private final FileChannel channel;
+    private final Rules rules;
+    private final boolean sided;
+    private final int rowSize;
+    private final ByteBuffer in;
+
+    private final int[] players;
+    private final int[] legs;
+    private final byte[] turns;
+    private final byte[] sides;
+    private final short[] codes;
+    /** Numbers of the rows taken back, in order, once found. */
+    private int[] undone;
+
+    private ThrowArchiveReader(FileChannel channel, Rules rules, boolean sided, int blockRows) {
+        this.channel = channel;
+        this.rules = rules;
+        this.sided = sided;
+        this.rowSize = sided ? ThrowArchiveWriter.ROW_SIZE : ThrowArchiveWriter.UNSIDED_ROW_SIZE;
+        this.in = ByteBuffer.allocateDirect(ThrowArchiveWriter.BLOCK_HEADER_SIZE + blockRows * rowSize);
+        this.players = new int[blockRows];
+        this.legs = new int[blockRows];
+        this.turns = new byte[blockRows];
+        this.sides = new byte[blockRows];
+        this.codes = new short[blockRows];
+    }
+
+    /**
+     * Opens an archive for reading.
+     *
+     * @throws IOException if the file cannot be read or is not a throw archive
+     */
+    public static ThrowArchiveReader open(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        ByteBuffer header = ByteBuffer.allocate(ThrowArchiveWriter.HEADER_SIZE);
+        channel.read(header, 0);
+        header.flip();
+        Rules rules = header.remaining() < ThrowArchiveWriter.HEADER_SIZE
+                || header.getInt() != ThrowArchiveWriter.MAGIC ? null : ThrowArchiveWriter.readRules(header);
+        if (rules == null) {
+            channel.close();
+            throw new IOException("Not a throw archive: " + path);
+        }
+        int blockRows = header.getInt(8);
+        boolean sided = header.getShort(4) >= ThrowArchiveWriter.FIRST_VERSION_WITH_SIDES;
+        return new ThrowArchiveReader(channel, rules, sided, blockRows);
+    }
+
+    /** @return the starting score of every leg in the archive */
+    public int getTargetScore() { return rules.getStartScore(); }
+
+    /** @return the rules every leg in the archive was played to */
+    public Rules getRules() { return rules; }
+
+    /** Receives each row of the archive in order. */
+    @FunctionalInterface
+    public interface RowVisitor {
+        /**
+         * @param playerId archive id of the player throwing
+         * @param leg archive-wide leg number
+         * @param turn the player's turn number within the leg
+         * @param side the player's side in their game, or -1 in an archive from before sides
+         *             were kept, where every player is taken to throw for themselves
+         * @param code an encoded {@link Dart}, or a {@link ThrowArchiveWriter#totalCode total code}
+         */
+        void visit(int playerId, int leg, int turn, int side, int code);
+    }
+
+    /**
+     * Streams every throw that stands through the visitor, in the order thrown.
+     *
+     * @return number of throws visited
+     * @throws IOException if the archive cannot be read
+     */
+    public long forEach(RowVisitor visitor) throws IOException {
+        int[] skip = undone();
+        int skipped = 0;
+        int row = 0;
+        long visited = 0;
+        long position = ThrowArchiveWriter.HEADER_SIZE;
+        long size = channel.size();
+
+        while (position + ThrowArchiveWriter.BLOCK_HEADER_SIZE <= size) {
+            int rows = readBlock(position);
+            for (int i = 0; i < rows; i++, row++) {
+                if (codes[i] == ThrowArchiveWriter.UNDO_CODE) continue;
+                if (skipped < skip.length && skip[skipped] == row) {
+                    skipped++;
+                    continue;
+                }
+                visitor.visit(players[i], legs[i], turns[i] & 0xFF, sided ? sides[i] & 0xFF : -1, codes[i]);
+                visited++;
+            }
+            position += ThrowArchiveWriter.BLOCK_HEADER_SIZE + (long) rows * rowSize;
+        }
+        return visited;
+    }
+
+    /** @return the numbers of the rows taken back by undo rows, in order */
+    private int[] undone() throws IOException {
+        if (undone != null) return undone;
+        int[] found = new int[0];
+        int count = 0;
+        long position = ThrowArchiveWriter.HEADER_SIZE;
+        long size = channel.size();
+        // Archives from before sides were kept have no undo rows.
+        while (sided && position + ThrowArchiveWriter.BLOCK_HEADER_SIZE <= size) {
+            int rows = readBlock(position);
+            for (int i = 0; i < rows; i++) {
+                if (codes[i] != ThrowArchiveWriter.UNDO_CODE) continue;
+                if (count == found.length) found = Arrays.copyOf(found, Math.max(16, count * 2));
+                found[count++] = players[i];
+            }
+            position += ThrowArchiveWriter.BLOCK_HEADER_SIZE + (long) rows * rowSize;
+        }
+        found = Arrays.copyOf(found, count);
+        Arrays.sort(found);
+        undone = found;
+        return found;
+    }
+
+    /** Reads and decodes the block at the given offset into the column arrays. */
+    private int readBlock(long position) throws IOException {
+        in.clear();
+        in.limit(ThrowArchiveWriter.BLOCK_HEADER_SIZE);
+        readFully(position);
+        in.flip();
+        int rows = in.getInt();
+        int baseLeg = in.getInt();
+
+        in.clear();
+        in.limit(rows * rowSize);
+        readFully(position + ThrowArchiveWriter.BLOCK_HEADER_SIZE);
+        in.flip();
+
+        for (int i = 0; i < rows; i++) players[i] = in.getInt();
+        for (int i = 0; i < rows; i++) legs[i] = baseLeg + (in.getShort() & 0xFFFF);
+        in.get(turns, 0, rows);
+        if (sided) in.get(sides, 0, rows);
+        for (int i = 0; i < rows; i++) codes[i] = in.getShort();
+        return rows;
+    }
+
+    private void readFully(long position) throws IOException {
+        while (in.hasRemaining()) {
+            int n = channel.read(in, position);
+            if (n < 0) throw new IOException("Truncated throw archive block");
+            position += n;
+        }
+    }
+
+    /**
+     * Rebuilds a player's statistics across the whole archive by replaying their throws
+     * with the archive's {@link Rules}, as {@link Game} scores them. In a team game the
+     * player's throws are scored against the score their side shares.
+     *
+     * @param playerId archive id of the player
+     * @return the player's statistics
+     * @throws IOException if the archive cannot be read
+     */
+    public PlayerStats aggregate(int playerId) throws IOException {
+        StatsReplay replay = new StatsReplay(playerId, rules);
+        forEach(replay);
+        replay.finishTurns();
+        return replay.stats;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * Replays one player's throws into a {@link PlayerStats}, one leg and turn at a time.
+     * Every side's throws in a leg are scored, since a teammate's throws move the score the
+     * player throws at, but only the player's own are counted.
+     */
+    private static final class StatsReplay implements RowVisitor {
+
+        final PlayerStats stats = new PlayerStats();
+        private final int playerId;
+        private final Rules rules;
+        private final Side[] sides = new Side[256];
+
+        private int leg = -1;
+        private boolean inLeg;
+
+        StatsReplay(int playerId, Rules rules) {
+            this.playerId = playerId;
+            this.rules = rules;
+        }
+
+        @Override
+        public void visit(int rowPlayer, int rowLeg, int rowTurn, int rowSide, int code) {
+            boolean own = rowPlayer == playerId;
+            if (rowSide < 0) {
+                // No sides recorded: the player's throws alone, against their own score.
+                if (!own) return;
+                rowSide = 0;
+            }
+            if (rowLeg != leg) {
+                finishTurns();
+                leg = rowLeg;
+                inLeg = false;
+                for (Side side : sides) {
+                    if (side != null) side.startLeg(rules.getStartScore());
+                }
+            }
+            if (own && !inLeg) {
+                stats.startLeg();
+                inLeg = true;
+            }
+            Side side = sides[rowSide];
+            if (side == null) {
+                side = sides[rowSide] = new Side();
+                side.startLeg(rules.getStartScore());
+            }
+            if (rowPlayer != side.player || rowTurn != side.turn) {
+                finishTurn(side);
+                side.startTurn(rowPlayer, rowTurn, own);
+            }
+            if (!side.turnOpen) return;
+
+            if ((code & ThrowArchiveWriter.TOTAL_FLAG) != 0) {
+                applyTotal(side, code & 0xFF, (code >>> 8) & 0x3, (code >>> 10) & 0x3);
+            } else {
+                applyDart(side, code);
+            }
+        }
+
+        private void applyTotal(Side side, int total, int darts, int dartsAtDouble) {
+            int newScore = side.remaining - total;
+            side.turnOpen = false;
+            if (side.own && dartsAtDouble > 0) stats.recordDoubleAttempts(dartsAtDouble, newScore == 0);
+            if (rules.isBust(newScore)) {
+                side.remaining = side.turnStart;
+                if (side.own) stats.recordTurn(0, 3, true, false);
+                return;
+            }
+            side.remaining = newScore;
+            if (side.own) stats.recordTurn(total, newScore == 0 && darts > 0 ? darts : 3, false, newScore == 0);
+        }
+
+        private void applyDart(Side side, int dart) {
+            if (side.own) stats.recordDart(rules, side.remaining, dart);
+            int newScore = rules.next(side.remaining, dart);
+            if (newScore == Rules.BUST) {
+                side.remaining = side.turnStart;
+                side.turnOpen = false;
+                if (side.own) stats.recordTurn(0, 3, true, false);
+                return;
+            }
+            side.remaining = newScore;
+            side.turnDarts++;
+            if (newScore == 0 || side.turnDarts == 3) {
+                side.turnOpen = false;
+                if (side.own) stats.recordTurn(side.turnStart - newScore, side.turnDarts, false, newScore == 0);
+            }
+        }
+
+        /** Closes a turn cut short by the end of the archive or of the match. */
+        private void finishTurn(Side side) {
+            if (side.own && side.turnOpen && side.turnDarts > 0) {
+                stats.recordTurn(side.turnStart - side.remaining, side.turnDarts, false, false);
+            }
+            side.turnOpen = false;
+        }
+
+        /** Closes every side's open turn. */
+        void finishTurns() {
+            for (Side side : sides) {
+                if (side != null) finishTurn(side);
+            }
+        }
+    }
+
+    /** One side's score in the leg being replayed, and the turn it is in. */
+    private static final class Side {
+        int remaining;
+        int turnStart;
+        int turnDarts;
+        boolean turnOpen;
+        int player;
+        int turn;
+        boolean own;
+
+        void startLeg(int startScore) {
+            remaining = startScore;
+            turnOpen = false;
+            player = -1;
+            turn = -1;
+        }
+
+        void startTurn(int rowPlayer, int rowTurn, boolean ownTurn) {
+            player = rowPlayer;
+            turn = rowTurn;
+            own = ownTurn;
+            turnStart = remaining;
+            turnDarts = 0;
+            turnOpen = true;
+        }
+    }
+}
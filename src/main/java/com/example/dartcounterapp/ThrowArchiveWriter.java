@@ -0,0 +1,273 @@
+package com.example.dartcounterapp;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Writes throws to a columnar archive file for long-term history.
+ *
+ * <p>Throws are buffered into blocks of up to {@link #BLOCK_ROWS} rows and each block is
+ * written column by column: player ids, leg numbers (as deltas from the block's first leg),
+ * turn numbers, sides and throw codes. A throw code is either an encoded {@link Dart} or
+ * {@link #TOTAL_FLAG} plus a turn total, see {@link #totalCode}. The side is the thrower's
+ * side in their game, so that teammates' throws can be scored against the score they share.
+ * Rows cost ten bytes each and a reader can stream the file a block at a time, see
+ * {@link ThrowArchiveReader}.</p>
+ *
+ * <p>A throw the game takes back is dropped if it is the last row still buffered. Otherwise an
+ * undo row is appended: code {@link #UNDO_CODE}, with the taken-back row's number in the
+ * archive, counting from 0, in place of the player id. Readers skip both rows.</p>
+ *
+ * <p>File layout: a 16 byte header (magic, version, target score, block rows, {@link Rules}
+ * code) followed by blocks of {rows, base leg, player[rows], leg delta[rows], turn[rows],
+ * side[rows], code[rows]}.</p>
+ */
+public final class ThrowArchiveWriter implements Closeable {
+
+    static final int MAGIC = 0x44434131; // "DCA1"
+    static final short VERSION = 3;
+    /** Archives before this version hold no rules code and were all played double out. */
+    static final short FIRST_VERSION_WITH_RULES = 2;
+    /** Archives before this version hold no side column, and rows of {@link #UNSIDED_ROW_SIZE}. */
+    static final short FIRST_VERSION_WITH_SIDES = 3;
+    static final int HEADER_SIZE = 16;
+    static final int BLOCK_HEADER_SIZE = 8;
+    static final int ROW_SIZE = 4 + 2 + 1 + 1 + 2;
+    static final int UNSIDED_ROW_SIZE = 4 + 2 + 1 + 2;
+
+    /** Rows per block. */
+    public static final int BLOCK_ROWS = 8192;
+
+    /** Marks a throw code as a turn total rather than a dart. */
+    public static final int TOTAL_FLAG = 0x4000;
+
+    /** The code of an undo row, which takes back the row numbered in its player column. */
+    static final short UNDO_CODE = -1;
+
+    /**
+     * Encodes a turn total as a throw code: the total in the low byte, then two bits each
+     * for the darts used and the darts thrown at a double.
+     */
+    public static int totalCode(int total, int darts, int dartsAtDouble) {
+        return TOTAL_FLAG | (dartsAtDouble << 10) | (darts << 8) | total;
+    }
+
+    private final FileChannel channel;
+    private final ByteBuffer out = ByteBuffer.allocateDirect(BLOCK_HEADER_SIZE + BLOCK_ROWS * ROW_SIZE);
+
+    private final int[] players = new int[BLOCK_ROWS];
+    private final int[] legs = new int[BLOCK_ROWS];
+    private final byte[] turns = new byte[BLOCK_ROWS];
+    private final byte[] sides = new byte[BLOCK_ROWS];
+    private final short[] codes = new short[BLOCK_ROWS];
+    private int rows;
+    /** Number the next row will have in the archive. */
+    private int nextRow;
+
+    private ThrowArchiveWriter(FileChannel channel, int nextRow) {
+        this.channel = channel;
+        this.nextRow = nextRow;
+    }
+
+    /**
+     * Opens an archive of legs played straight in, double out, for appending, creating it if
+     * it does not exist.
+     *
+     * @param path the archive file
+     * @param targetScore starting score of every leg in the archive
+     * @return the writer, positioned at the end of the archive
+     * @throws IOException if the file cannot be opened, or holds an archive for other rules
+     */
+    public static ThrowArchiveWriter open(Path path, int targetScore) throws IOException {
+        return open(path, Rules.doubleOut(targetScore));
+    }
+
+    /**
+     * Opens an archive for appending, creating it if it does not exist.
+     *
+     * @param path the archive file
+     * @param rules the rules every leg in the archive is played to
+     * @return the writer, positioned at the end of the archive
+     * @throws IOException if the file cannot be opened, or holds an archive for other rules
+     *                     or written by an older version
+     */
+    public static ThrowArchiveWriter open(Path path, Rules rules) throws IOException {
+        int targetScore = rules.getStartScore();
+        if (path.getParent() != null) Files.createDirectories(path.getParent());
+        FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        if (channel.size() == 0) {
+            header.putInt(MAGIC).putShort(VERSION).putShort((short) targetScore).putInt(BLOCK_ROWS).putInt(rules.code());
+            header.flip();
+            channel.write(header, 0);
+        } else {
+            channel.read(header, 0);
+            header.flip();
+            if (header.getInt() != MAGIC || readRules(header) != rules) {
+                channel.close();
+                throw new IOException("Not a " + rules + " throw archive: " + path);
+            }
+            if (header.getShort(4) != VERSION) {
+                channel.close();
+                throw new IOException("Throw archive from an older version, read only: " + path);
+            }
+        }
+        channel.position(channel.size());
+        return new ThrowArchiveWriter(channel, countRows(channel));
+    }
+
+    /** Counts the rows in the blocks already written, reading only the block headers. */
+    private static int countRows(FileChannel channel) throws IOException {
+        ByteBuffer block = ByteBuffer.allocate(4);
+        int count = 0;
+        long position = HEADER_SIZE;
+        while (position + BLOCK_HEADER_SIZE <= channel.size()) {
+            block.clear();
+            channel.read(block, position);
+            int blockRows = block.getInt(0);
+            count += blockRows;
+            position += BLOCK_HEADER_SIZE + (long) blockRows * ROW_SIZE;
+        }
+        return count;
+    }
+
+    /**
+     * Reads the rules from a header positioned after the magic number.
+     *
+     * @return the rules, or null if the version is not supported
+     */
+    static Rules readRules(ByteBuffer header) {
+        int version = header.getShort();
+        int targetScore = header.getShort();
+        header.getInt();
+        int code = header.getInt();
+        if (version < 1 || version > VERSION) return null;
+        if (version < FIRST_VERSION_WITH_RULES) return Rules.doubleOut(targetScore);
+        try {
+            return Rules.fromCode(targetScore, code);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Appends one throw.
+     *
+     * @param playerId the archive-wide id of the player throwing
+     * @param leg the archive-wide leg number
+     * @param turn the player's turn number within the leg, from 0
+     * @param side the player's side in their game, from 0 to 255; teammates share one
+     * @param code an encoded {@link Dart}, or a {@link #totalCode total code}
+     */
+    public void append(int playerId, int leg, int turn, int side, int code) {
+        // Legs go back after an undo into an earlier leg, which a block's deltas cannot.
+        if (rows > 0 && (leg < legs[0] || leg - legs[0] > Short.MAX_VALUE)) writeBlock();
+        nextRow++;
+        players[rows] = playerId;
+        legs[rows] = leg;
+        turns[rows] = (byte) Math.min(turn, 255);
+        sides[rows] = (byte) side;
+        codes[rows] = (short) code;
+        if (++rows == BLOCK_ROWS) writeBlock();
+    }
+
+    /**
+     * Returns a listener that archives every throw accepted by one game.
+     * Legs are numbered from {@code legBase} plus the legs already played in that game.
+     *
+     * @param player1Id archive id of the game's first player
+     * @param player2Id archive id of the game's second player
+     * @param legBase archive leg number of the game's first leg
+     */
+    public ThrowListener recorder(int player1Id, int player2Id, int legBase) {
+        return recorder(new int[] {player1Id, player2Id}, legBase);
+    }
+
+    /**
+     * Returns a listener that archives every throw accepted by one game of any size.
+     * Legs are numbered from {@code legBase} plus the legs already played in that game.
+     * A throw the game takes back is taken out of the archive again.
+     *
+     * @param playerIds archive ids of the game's players, in its throwing order
+     * @param legBase archive leg number of the game's first leg
+     */
+    public ThrowListener recorder(int[] playerIds, int legBase) {
+        int[] ids = playerIds.clone();
+        return new ThrowListener() {
+            /** Numbers of the rows this game's throws went to, latest last. */
+            private int[] recorded = new int[256];
+            private int count;
+
+            @Override
+            public void onDart(Game game, Player thrower, int dart) {
+                record(game, thrower, dart);
+            }
+
+            @Override
+            public void onTotal(Game game, Player thrower, int total, int darts, int dartsAtDouble) {
+                record(game, thrower, totalCode(total, darts, dartsAtDouble));
+            }
+
+            /** Takes back the row of the undone throw, if it was recorded here. */
+            @Override
+            public void onUndo(Game game) {
+                if (count > 0) takeBack(recorded[--count], legBase + game.getLegsPlayed());
+            }
+
+            private void record(Game game, Player thrower, int code) {
+                if (count == recorded.length) recorded = Arrays.copyOf(recorded, count * 2);
+                recorded[count++] = nextRow;
+                append(ids[game.indexOf(thrower)], legBase + game.getLegsPlayed(),
+                        thrower.getStats().getTurnsThisLeg(), thrower.getSide(), code);
+            }
+        };
+    }
+
+    /** Drops the given row if it is the last one buffered, or else appends an undo row for it. */
+    private void takeBack(int row, int leg) {
+        if (rows > 0 && row == nextRow - 1) {
+            rows--;
+            nextRow--;
+        } else {
+            append(row, leg, 0, 0, UNDO_CODE);
+        }
+    }
+
+    private void writeBlock() {
+        if (rows == 0) return;
+        out.clear();
+        out.putInt(rows).putInt(legs[0]);
+        for (int i = 0; i < rows; i++) out.putInt(players[i]);
+        for (int i = 0; i < rows; i++) out.putShort((short) (legs[i] - legs[0]));
+        out.put(turns, 0, rows);
+        out.put(sides, 0, rows);
+        for (int i = 0; i < rows; i++) out.putShort(codes[i]);
+        out.flip();
+        try {
+            while (out.hasRemaining()) channel.write(out);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write throw archive block", e);
+        }
+        rows = 0;
+    }
+
+    /** Writes any buffered rows as a final, possibly short, block and closes the file. */
+    @Override
+    public void close() throws IOException {
+        try {
+            writeBlock();
+            channel.force(false);
+        } finally {
+            channel.close();
+        }
+    }
+}
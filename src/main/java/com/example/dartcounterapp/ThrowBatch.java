@@ -0,0 +1,173 @@
+package com.example.dartcounterapp;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A sequence of throws entered in one go, such as a leg copied from a paper scoresheet:
+ * {@code "T20 T20 T20 / 140 / 100 / 45/2/1"}. Created by {@link Game#throwBatch}.
+ *
+ * <p>Entries are separated by spaces. An entry with letters ({@code T20}, {@code D16},
+ * {@code BULL}, {@code M}) is a dart, as is a plain number part-way through a turn; a plain
+ * number at the start of a turn is the turn's total, optionally followed by the darts used
+ * and the darts at a double as in total mode ({@code 40/2/1}), unless the batch is darts
+ * only. A lone {@code /}, a comma, a semicolon, a {@code |} or a line break ends a turn and
+ * checks that it is complete; they are optional, except after a turn cut short by a bust or
+ * a finish, where more darts before the break are an error rather than the next thrower's.</p>
+ *
+ * <p>The whole sequence is checked against a copy of the game before anything is applied,
+ * so every invalid entry is reported together and an invalid batch leaves the game as it
+ * was. Each entry is checked in the state the entries before it left; an invalid total
+ * counts as a turn of no score, an invalid dart as a miss, and darts after a turn cut short
+ * are skipped up to the break, so the entries after a mistake are checked against the right
+ * thrower and one mistake is reported once.</p>
+ */
+public final class ThrowBatch {
+
+    private int[] events = new int[64];
+    private int count;
+    private final List<String> errors = new ArrayList<>();
+    private ThrowResult lastResult = ThrowResult.NONE;
+    private boolean applied;
+    private boolean dartsOnly;
+    /** Set when a dart ended its turn early, until the next turn break. */
+    private boolean cutShort;
+    /** Set once the entries after a turn cut short have been reported. */
+    private boolean cutShortReported;
+
+    private ThrowBatch() { }
+
+    /**
+     * Parses the sequence and plays it through the scratch game, which must be a copy of the
+     * game the batch will be applied to, with no listeners.
+     */
+    static ThrowBatch check(Game scratch, CharSequence text, boolean dartsOnly) {
+        ThrowBatch batch = new ThrowBatch();
+        batch.dartsOnly = dartsOnly;
+        int n = text.length();
+        for (int i = 0; i < n; ) {
+            char c = text.charAt(i);
+            if (isTurnBreak(c)) {
+                batch.endTurn(scratch, text, i, i + 1);
+                i++;
+            } else if (Character.isWhitespace(c)) {
+                i++;
+            } else {
+                int start = i;
+                while (i < n && !isTurnBreak(text.charAt(i)) && !Character.isWhitespace(text.charAt(i))) i++;
+                if (i - start == 1 && c == '/') batch.endTurn(scratch, text, start, i);
+                else batch.enter(scratch, text, start, i);
+            }
+        }
+        return batch;
+    }
+
+    private static boolean isTurnBreak(char c) {
+        return c == '\n' || c == ',' || c == ';' || c == '|';
+    }
+
+    private void endTurn(Game scratch, CharSequence text, int start, int end) {
+        cutShort = false;
+        cutShortReported = false;
+        int darts = scratch.getDartsThrown();
+        if (darts > 0) error(text, start, end, "Turn not finished after " + darts + (darts == 1 ? " dart" : " darts"));
+    }
+
+    private void enter(Game scratch, CharSequence text, int start, int end) {
+        if (scratch.getMatchWinner() != null) {
+            error(text, start, end, "The match is already won");
+            return;
+        }
+        if (cutShort) {
+            if (!cutShortReported) error(text, start, end, "The turn already ended; separate the next turn with /");
+            cutShortReported = true;
+            return;
+        }
+        boolean letters = false;
+        for (int i = start; i < end && !letters; i++) letters = Character.isLetter(text.charAt(i));
+
+        int seat = scratch.getCurrentIndex();
+        if (letters || dartsOnly || scratch.getDartsThrown() > 0) {
+            int dart = Dart.parse(text, start, end);
+            if (Dart.isValid(dart)) {
+                int before = scratch.getDartsThrown();
+                ThrowResult result = scratch.throwDart(dart);
+                add(MatchCodec.dartEvent(seat, dart), result);
+                cutShort = result.endsTurn() && before < 2;
+            } else {
+                error(text, start, end, ThrowResult.INVALID_DART.getMessage());
+                // Count it as a miss so the rest of the turn is still checked against the right dart.
+                scratch.throwDart(Dart.MISS);
+            }
+            return;
+        }
+
+        int[] parts = {0, 0, -1};
+        int part = 0;
+        int digits = 0;
+        for (int i = start; i < end && part < parts.length; i++) {
+            char c = text.charAt(i);
+            if (c == '/' && digits > 0) {
+                part++;
+                digits = 0;
+                if (part < parts.length) parts[part] = 0;
+            } else if (c >= '0' && c <= '9' && ++digits <= 3) {
+                parts[part] = parts[part] * 10 + (c - '0');
+            } else {
+                part = parts.length;
+            }
+        }
+        if (part >= parts.length || digits == 0) {
+            error(text, start, end, "Enter a dart, or a total such as 100 or 40/2/1");
+            scratch.throwTotal(0);
+            return;
+        }
+        ThrowResult result = scratch.throwTotal(parts[0], parts[1], parts[2]);
+        if (!result.isValid()) {
+            error(text, start, end, result.getMessage());
+            // Pass the turn on as no score, so the next total is checked for the next thrower.
+            scratch.throwTotal(0);
+        } else {
+            add(MatchCodec.totalEvent(seat, parts[0], parts[1], parts[2]), result);
+        }
+    }
+
+    private void add(int event, ThrowResult result) {
+        if (count == events.length) events = Arrays.copyOf(events, count * 2);
+        events[count++] = event;
+        lastResult = result;
+    }
+
+    private void error(CharSequence text, int start, int end, String message) {
+        errors.add("at " + (start + 1) + " \"" + text.subSequence(start, end) + "\": " + message);
+    }
+
+    /** Applies every checked throw to the game, in order. */
+    void applyTo(Game game) {
+        for (int i = 0; i < count; i++) MatchCodec.apply(events[i], game);
+        applied = true;
+    }
+
+    /** @return true if every entry was valid, so the batch could be applied */
+    public boolean isValid() { return errors.isEmpty(); }
+
+    /** @return true if the throws were applied to the game */
+    public boolean isApplied() { return applied; }
+
+    /** @return number of valid throws in the batch */
+    public int getThrowCount() { return count; }
+
+    /** @return the {@code i}-th valid throw, encoded by {@link MatchCodec} */
+    public int getEvent(int i) { return events[i]; }
+
+    /** @return what the last valid throw did, or {@link ThrowResult#NONE} if there were none */
+    public ThrowResult getLastResult() { return lastResult; }
+
+    /** @return one line per invalid entry, giving its position in the text, in order */
+    public List<String> getErrors() { return Collections.unmodifiableList(errors); }
+
+    /** @return every error on its own line, or an empty string if there were none */
+    public String getErrorReport() { return String.join("\n", errors); }
+}
@@ -0,0 +1,47 @@
+package com.example.dartcounterapp;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event covering one throw scored by {@link Game}, from validation to the result.
+ * Stack traces are off, so a committed event costs a timestamp and a buffer write.
+ * {@link #beginIfEnabled} allocates no event at all unless a recording has it enabled.
+ */
+@Name("com.example.dartcounter.Throw")
+@Label("Throw")
+@Category({"DartCounter", "Scoring"})
+@Description("A dart or turn total scored by the game")
+@StackTrace(false)
+final class ThrowEvent extends jdk.jfr.Event {
+
+    static final String DART = "dart";
+    static final String TOTAL = "total";
+
+    /** Only ever asked whether the event is enabled, never begun or committed. */
+    private static final ThrowEvent PROBE = new ThrowEvent();
+
+    @Label("Kind")
+    String kind;
+
+    @Label("Value")
+    @Description("Encoded dart, or turn total")
+    int value;
+
+    @Label("Player")
+    String player;
+
+    @Label("Result")
+    String result;
+
+    /** @return a new event, begun, or null if no recording has the event enabled */
+    static ThrowEvent beginIfEnabled() {
+        if (!PROBE.isEnabled()) return null;
+        ThrowEvent event = new ThrowEvent();
+        event.begin();
+        return event;
+    }
+}
@@ -0,0 +1,248 @@
+package com.example.dartcounterapp;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only journal of every throw a {@link Game} accepts, kept in a memory-mapped file.
+ * A throw the game takes back is dropped from the end.
+ * Each record is a fixed four bytes, so appending is a couple of buffer writes and a
+ * crashed match can be rebuilt by replaying the records through a fresh Game.
+ * Dirty pages are forced to disk in batches on a background thread, so the input path
+ * never waits on a disk sync.
+ *
+ * <p>Layout: a 32 byte header (magic, version, target score, legs per set, sets to win,
+ * match id, {@link Rules} code, sides, players per side, CRC32 of the player names in seat
+ * order) followed by records of {type, detail, value}. For totals the detail byte holds the darts
+ * used and the darts at a double, two bits each. A zero type marks the end of the log.</p>
+ */
+public final class ThrowJournal implements ThrowListener, Closeable {
+
+    private static final int MAGIC = 0x44434A31; // "DCJ1"
+    private static final short VERSION = 2;
+    private static final int HEADER_SIZE = 32;
+    private static final int MATCH_ID = 12;
+    private static final int RECORD_SIZE = 4;
+    private static final int INITIAL_SIZE = 64 * 1024;
+    private static final long FLUSH_INTERVAL_MS = 250;
+
+    private static final byte END = 0;
+    private static final byte DART = 1;
+    private static final byte TOTAL = 2;
+
+    private final FileChannel channel;
+    private final ScheduledExecutorService flusher;
+    private volatile MappedByteBuffer buffer;
+    private volatile boolean dirty;
+    private int position;
+
+    private ThrowJournal(FileChannel channel, MappedByteBuffer buffer, int position) {
+        this.channel = channel;
+        this.buffer = buffer;
+        this.position = position;
+        this.flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "throw-journal-flush");
+            t.setDaemon(true);
+            return t;
+        });
+        flusher.scheduleWithFixedDelay(this::flush, FLUSH_INTERVAL_MS, FLUSH_INTERVAL_MS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Opens the journal at the given path, creating it if needed. An existing journal
+     * recorded for a different match format, rules or line-up is discarded and a new one
+     * started, so its throws are never replayed into the wrong match.
+     *
+     * @param path the journal file
+     * @param game a game with the format and line-up of the match to journal
+     * @return the open journal, positioned after its last record
+     * @throws IOException if the file cannot be opened or mapped
+     */
+    public static ThrowJournal open(Path path, Game game) throws IOException {
+        if (path.getParent() != null) Files.createDirectories(path.getParent());
+        FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+
+        long size = Math.max(channel.size(), INITIAL_SIZE);
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+
+        ByteBuffer header = header(game);
+        int afterId = MATCH_ID + 4;
+        boolean matches = buffer.slice(0, MATCH_ID).equals(header.slice(0, MATCH_ID))
+                && buffer.slice(afterId, HEADER_SIZE - afterId).equals(header.slice(afterId, HEADER_SIZE - afterId));
+
+        if (!matches) {
+            for (int i = 0; i < buffer.capacity(); i += RECORD_SIZE) buffer.putInt(i, 0);
+            buffer.put(0, header, 0, HEADER_SIZE);
+            start(buffer);
+        }
+
+        int position = HEADER_SIZE;
+        while (position + RECORD_SIZE <= buffer.capacity() && buffer.get(position) != END) {
+            position += RECORD_SIZE;
+        }
+        return new ThrowJournal(channel, buffer, position);
+    }
+
+    /** @return the header the game's match is journalled under, with a zero match id */
+    private static ByteBuffer header(Game game) {
+        CRC32 names = new CRC32();
+        for (int seat = 0; seat < game.getPlayerCount(); seat++) {
+            names.update(game.getPlayer(seat).getName().getBytes(StandardCharsets.UTF_8));
+            names.update(0);
+        }
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        header.putInt(0, MAGIC);
+        header.putShort(4, VERSION);
+        header.putShort(6, (short) game.getTargetScore());
+        header.putShort(8, (short) game.getLegsPerSet());
+        header.putShort(10, (short) game.getSetsToWin());
+        header.putShort(16, (short) game.getRules().code());
+        header.putShort(18, (short) game.getSideCount());
+        header.putShort(20, (short) (game.getPlayerCount() / game.getSideCount()));
+        header.putInt(24, (int) names.getValue());
+        return header;
+    }
+
+    /** Gives the match in an emptied buffer a fresh id and forces the header to disk. */
+    private static void start(MappedByteBuffer buffer) {
+        buffer.putInt(MATCH_ID, ThreadLocalRandom.current().nextInt());
+        buffer.force();
+    }
+
+    /**
+     * Drops every record and starts a new match in the same format, with a new match id so
+     * that snapshots of the old one no longer apply. Call it before attaching the journal to
+     * the new match's game.
+     */
+    public void restart() {
+        MappedByteBuffer buf = buffer;
+        for (int i = HEADER_SIZE; i < position; i += RECORD_SIZE) buf.putInt(i, 0);
+        start(buf);
+        position = HEADER_SIZE;
+        dirty = false;
+    }
+
+    /** @return number of throws recorded in the journal */
+    public int size() {
+        return (position - HEADER_SIZE) / RECORD_SIZE;
+    }
+
+    /** @return a random id chosen when the journal was started, identifying the match it records */
+    public int getMatchId() {
+        return buffer.getInt(MATCH_ID);
+    }
+
+    /**
+     * Replays every recorded throw into the given game, which must be freshly created with
+     * the journal's match format and must not have this journal attached yet.
+     *
+     * @param game the game to rebuild
+     * @return number of throws replayed
+     */
+    public int replay(Game game) {
+        return replay(game, 0);
+    }
+
+    /**
+     * Replays the throws recorded after the first {@code from} into a game already holding
+     * the state those first throws produced, for example one restored by {@link MatchSnapshots}.
+     *
+     * @param game the game to bring up to date
+     * @param from number of leading records to skip
+     * @return number of throws replayed
+     */
+    public int replay(Game game, int from) {
+        MappedByteBuffer buf = buffer;
+        int count = 0;
+        for (int p = HEADER_SIZE + from * RECORD_SIZE; p < position; p += RECORD_SIZE) {
+            byte type = buf.get(p);
+            int detail = buf.get(p + 1);
+            short value = buf.getShort(p + 2);
+            if (type == DART) {
+                game.throwDart((int) value);
+            } else if (type == TOTAL) {
+                int darts = (detail >>> 2) & 0x3;
+                game.throwTotal(value, darts, darts == 0 ? -1 : detail & 0x3);
+            } else {
+                continue;
+            }
+            count++;
+        }
+        return count;
+    }
+
+    /** Records an accepted dart, encoded by {@link Dart}. */
+    @Override
+    public void onDart(Game game, Player thrower, int dart) {
+        append(DART, 0, dart);
+    }
+
+    /** Records an accepted turn total with its dart counts. */
+    @Override
+    public void onTotal(Game game, Player thrower, int total, int darts, int dartsAtDouble) {
+        append(TOTAL, (darts << 2) | dartsAtDouble, total);
+    }
+
+    /** Drops the last record, for the throw the game took back. */
+    @Override
+    public void onUndo(Game game) {
+        if (position == HEADER_SIZE) return;
+        position -= RECORD_SIZE;
+        buffer.put(position, END);
+        dirty = true;
+    }
+
+    private void append(byte type, int detail, int value) {
+        if (position + RECORD_SIZE > buffer.capacity()) grow();
+        MappedByteBuffer buf = buffer;
+        buf.put(position + 1, (byte) detail);
+        buf.putShort(position + 2, (short) value);
+        buf.put(position, type); // type last, so a record only becomes visible once complete
+        position += RECORD_SIZE;
+        dirty = true;
+    }
+
+    private void grow() {
+        try {
+            buffer.force();
+            buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, (long) buffer.capacity() * 2);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not extend throw journal", e);
+        }
+    }
+
+    /** Forces any records written since the last flush to disk. */
+    public void flush() {
+        if (!dirty) return;
+        dirty = false;
+        buffer.force();
+    }
+
+    /** Stops the background flusher and forces outstanding records to disk. */
+    @Override
+    public void close() throws IOException {
+        flusher.shutdown();
+        try {
+            flusher.awaitTermination(1, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        dirty = true;
+        flush();
+        channel.close();
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.dartcounterapp;
+
+/**
+ * Receives every throw a {@link Game} accepts, after validation and before it is applied,
+ * the result of applying it, the end of every leg, and throws taken back.
+ * Listeners run on the thread driving the game, so they must be quick and must not block.
+ */
+public interface ThrowListener {
+
+    /**
+     * Called for each accepted dart.
+     *
+     * @param game the game the dart was thrown in
+     * @param thrower the player throwing
+     * @param dart the dart, encoded by {@link Dart}
+     */
+    void onDart(Game game, Player thrower, int dart);
+
+    /**
+     * Called for each accepted turn total.
+     *
+     * @param game the game the turn was thrown in
+     * @param thrower the player throwing
+     * @param total the total entered for the turn
+     * @param darts darts used in the turn (1 to 3)
+     * @param dartsAtDouble darts thrown at a finishing double (0 to 3)
+     */
+    void onTotal(Game game, Player thrower, int total, int darts, int dartsAtDouble);
+
+    /**
+     * Called once an accepted throw has been applied.
+     *
+     * @param game the game the throw was made in
+     * @param thrower the player who threw
+     * @param result what the throw did; always valid
+     */
+    default void onResult(Game game, Player thrower, ThrowResult result) { }
+
+    /**
+     * Called when a leg ends, after the game has been set up for the next leg
+     * (or, if the match is over, left in its final state).
+     *
+     * @param game the game the leg was played in
+     * @param winner the player who checked out
+     */
+    default void onLegWon(Game game, Player winner) { }
+
+    /**
+     * Called when the game has taken back its last throw, after the state has been restored
+     * to what it was before that throw. Putting a throw back is reported as a new throw.
+     *
+     * @param game the game the throw was taken back in
+     */
+    default void onUndo(Game game) { }
+}
@@ -0,0 +1,64 @@
+package com.example.dartcounterapp;
+
+/**
+ * What a throw did, returned by {@link Game#throwDart(int)} and {@link Game#throwTotal(int, int, int)}
+ * and passed to {@link ThrowListener#onResult}. The constants are shared, so scoring a throw never
+ * builds a message; {@link #describe} builds one for display when it is needed.
+ */
+public enum ThrowResult {
+
+    /** The dart counted and the thrower has darts left this turn. */
+    NONE("", true, false),
+    /** The turn is over and the next player throws. */
+    SWITCH("Switch", true, true),
+    /** The turn went bust; the score is back to where the turn started. */
+    BUST("Bust!", true, true),
+    /** The thrower's side won the leg. */
+    LEG("wins the LEG!", true, true),
+    /** The thrower's side won the leg and with it the set. */
+    SET("wins the SET!", true, true),
+    /** The thrower's side won the leg, the set and the match. */
+    MATCH("wins the MATCH!", true, true),
+
+    INVALID_DART("Invalid dart entry!", false, false),
+    NEGATIVE_SCORE("Invalid score: cannot be negative!", false, false),
+    SCORE_OVER_MAX("Invalid score: cannot exceed 180!", false, false),
+    DART_COUNT("Invalid dart count: must be 1 to 3!", false, false),
+    DARTS_WITHOUT_CHECKOUT("Invalid dart count: only a checkout can use fewer than 3 darts!", false, false),
+    UNREACHABLE_SCORE("Invalid score: not possible in that many darts!", false, false),
+    UNFINISHABLE_SCORE("Invalid score: can't be checked out in that many darts!", false, false),
+    UNOPENABLE_SCORE("Invalid score: not possible with the dart that opens the leg!", false, false),
+    DARTS_AT_DOUBLE("Invalid darts at double!", false, false),
+    /** The match has been won; a new one must be started to throw again. */
+    MATCH_OVER("The match is already won!", false, false);
+
+    private final String message;
+    private final boolean valid;
+    private final boolean endsTurn;
+
+    ThrowResult(String message, boolean valid, boolean endsTurn) {
+        this.message = message;
+        this.valid = valid;
+        this.endsTurn = endsTurn;
+    }
+
+    /** @return true if the throw was accepted and applied; otherwise nothing changed */
+    public boolean isValid() { return valid; }
+
+    /** @return true if the thrower's turn is over */
+    public boolean endsTurn() { return endsTurn; }
+
+    /** @return true for a leg, set or match won */
+    public boolean isWin() { return this == LEG || this == SET || this == MATCH; }
+
+    /** @return the message for this result; a win's message leaves out who won */
+    public String getMessage() { return message; }
+
+    /**
+     * @param side the name of the thrower's side
+     * @return the message to show, such as "Bust!" or "Alice wins the LEG!"
+     */
+    public String describe(String side) {
+        return isWin() ? side + ' ' + message : message;
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.dartcounterapp;
+
+/**
+ * Precomputed bitsets of the scores that can be made with one, two or three darts.
+ * Each check is a single bit test, so validation of every entry is O(1). Which totals
+ * can open or finish a leg depends on the in and out rules, and is held by {@link Rules}.
+ */
+public final class ThrowValidator {
+
+    /** Highest score possible in one turn. */
+    public static final int MAX_TURN_SCORE = 180;
+
+    private static final int MAX_DARTS = 3;
+    private static final int WORDS = (MAX_TURN_SCORE >>> 6) + 1;
+
+    /** REACHABLE[d] has bit t set if t can be scored with d darts (misses allowed). */
+    private static final long[][] REACHABLE = new long[MAX_DARTS + 1][WORDS];
+
+    static {
+        int[] dartScores = new int[Dart.CODE_LIMIT];
+        int dartCount = 0;
+        for (int code = 0; code < Dart.CODE_LIMIT; code++) {
+            if (Dart.isValid(code)) dartScores[dartCount++] = Dart.score(code);
+        }
+
+        set(REACHABLE[0], 0);
+        for (int d = 1; d <= MAX_DARTS; d++) {
+            for (int t = 0; t <= MAX_TURN_SCORE; t++) {
+                if (!get(REACHABLE[d - 1], t)) continue;
+                for (int i = 0; i < dartCount; i++) set(REACHABLE[d], t + dartScores[i]);
+            }
+        }
+    }
+
+    private ThrowValidator() { }
+
+    /** @return true if the total can be scored with the given number of darts */
+    public static boolean isReachable(int total, int darts) {
+        return darts >= 0 && darts <= MAX_DARTS && get(REACHABLE[darts], total);
+    }
+
+    private static boolean get(long[] bits, int i) {
+        return i >= 0 && i <= MAX_TURN_SCORE && (bits[i >>> 6] & (1L << i)) != 0;
+    }
+
+    private static void set(long[] bits, int i) {
+        if (i <= MAX_TURN_SCORE) bits[i >>> 6] |= 1L << i;
+    }
+}
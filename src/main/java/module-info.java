@@ -1,6 +1,7 @@
 module com.example.dartcounterapp {
     requires javafx.controls;
     requires javafx.fxml;
+    requires jdk.jfr;
 
     opens com.example.dartcounterapp to javafx.fxml;
     exports com.example.dartcounterapp;